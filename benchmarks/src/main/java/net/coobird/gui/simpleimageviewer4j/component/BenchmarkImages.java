@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Creates images for benchmarks from parameters.
+ */
+final class BenchmarkImages {
+	private BenchmarkImages() {
+	}
+
+	/**
+	 * Creates an image filled with noise.
+	 *
+	 * @param size Size of the image, as {@code <width>x<height>}.
+	 * @param type Name of one of the {@code TYPE_} constants of
+	 *             {@link BufferedImage}.
+	 */
+	static BufferedImage create(String size, String type) {
+		String[] dimensions = size.split("x");
+		int width = Integer.parseInt(dimensions[0]);
+		int height = Integer.parseInt(dimensions[1]);
+
+		BufferedImage image = new BufferedImage(width, height, imageType(type));
+
+		// Noise over a gradient, so that scaling has real work to do.
+		Random random = new Random(42);
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int base = (x * 255 / width + y * 255 / height) / 2;
+				int noise = random.nextInt(32);
+				int value = Math.min(255, base + noise);
+				row[x] = 0xff000000 | (value << 16) | ((255 - value) << 8) | noise * 8;
+			}
+			image.setRGB(0, y, width, 1, row, 0, width);
+		}
+		return image;
+	}
+
+	static int imageType(String type) {
+		try {
+			return BufferedImage.class.getField(type).getInt(null);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unknown image type: " + type, e);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downscales an image to a zoom level from scratch, through the pyramid of
+ * levels above it, as happens the first time an image is displayed at a
+ * magnification below {@code 1.0}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DownscaleBenchmark {
+	@Param({"640x480", "4000x3000"})
+	public String size;
+
+	@Param({"TYPE_INT_RGB", "TYPE_INT_ARGB", "TYPE_3BYTE_BGR", "TYPE_BYTE_GRAY"})
+	public String type;
+
+	@Param({"0.5", "0.25", "0.125", "0.3"})
+	public double magnification;
+
+	private BufferedImage image;
+	private int width;
+	private int height;
+	private ImagePyramid pyramid;
+
+	@Setup(Level.Trial)
+	public void setUpImage() {
+		image = BenchmarkImages.create(size, type);
+		width = ImagePyramid.scaledSize(image.getWidth(), magnification);
+		height = ImagePyramid.scaledSize(image.getHeight(), magnification);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpPyramid() {
+		// Nothing is cached from previous invocations.
+		pyramid = new ImagePyramid(new Cache<ScaleKey, BufferedImage>());
+	}
+
+	@Benchmark
+	public BufferedImage scale() throws Exception {
+		return pyramid.scale(image, magnification, width, height);
+	}
+}
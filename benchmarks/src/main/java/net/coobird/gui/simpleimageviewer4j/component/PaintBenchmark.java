@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paints a {@link DisplayPanel} into an offscreen image, once zooming has
+ * settled and the scaled rendition is available, as happens on every
+ * repaint of the viewer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+	private static final int VIEW_WIDTH = 1280;
+	private static final int VIEW_HEIGHT = 800;
+
+	@Param({"640x480", "4000x3000"})
+	public String size;
+
+	@Param({"TYPE_INT_RGB", "TYPE_INT_ARGB", "TYPE_3BYTE_BGR"})
+	public String type;
+
+	@Param({"0.25", "0.3", "1.0", "2.0"})
+	public double magnification;
+
+	private DisplayPanel panel;
+	private BufferedImage screen;
+	private Graphics2D g;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		final BufferedImage image = BenchmarkImages.create(size, type);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				panel = new DisplayPanel(new ListImageSource(Collections.singletonList(image)));
+				panel.setSize(VIEW_WIDTH, VIEW_HEIGHT);
+				panel.getZoomModel().zoomTo(magnification);
+			}
+		});
+
+		screen = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		g = screen.createGraphics();
+
+		// Let zooming settle, and the scaled rendition be computed.
+		Thread.sleep(500);
+		paint();
+		Thread.sleep(1000);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paint() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				g.setClip(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+				panel.paintComponent(g);
+			}
+		});
+		return screen;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up a cached rendition, as is done on every repaint at a
+ * magnification below {@code 1.0}. Run with {@code -prof gc} to see
+ * allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenditionLookupBenchmark {
+	private final BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+	private final Cache<ScaleKey, BufferedImage> cache =
+			new Cache<ScaleKey, BufferedImage>(Long.MAX_VALUE, ImageWeigher.INSTANCE);
+	private final AsyncScaler scaler = new AsyncScaler(cache, new Runnable() {
+		@Override
+		public void run() {
+		}
+	});
+	private double magnification = 0.25;
+
+	@Setup
+	public void setUp() {
+		cache.put(ScaleKey.of(image, magnification), new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+	}
+
+	@Benchmark
+	public BufferedImage getIfScaled() {
+		return scaler.getIfScaled(image, magnification);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up scaled images in a {@link Cache} from several threads at once,
+ * both when they are cached and when they must be computed and others
+ * evicted to make room.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+	private static final int IMAGES = 64;
+	private static final double[] LEVELS = { 0.5, 0.25, 0.125, 0.0625 };
+
+	private final BufferedImage[] images = new BufferedImage[IMAGES];
+	private final BufferedImage value = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+
+	private Cache<Pair<BufferedImage, Double>, BufferedImage> hits;
+	private Cache<Pair<BufferedImage, Double>, BufferedImage> misses;
+
+	private final Callable<BufferedImage> computation = new Callable<BufferedImage>() {
+		@Override
+		public BufferedImage call() {
+			return value;
+		}
+	};
+
+	@Setup
+	public void setUp() throws Exception {
+		for (int i = 0; i < IMAGES; i++) {
+			images[i] = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		}
+
+		hits = new Cache<Pair<BufferedImage, Double>, BufferedImage>();
+		for (BufferedImage image : images) {
+			for (double level : LEVELS) {
+				hits.computeIfAbsent(new Pair<BufferedImage, Double>(image, level), computation);
+			}
+		}
+
+		// Room for a quarter of the keys, so most lookups evict.
+		long weight = ImageWeigher.INSTANCE.weigh(value);
+		misses = new Cache<Pair<BufferedImage, Double>, BufferedImage>(
+				weight * IMAGES * LEVELS.length / 4, ImageWeigher.INSTANCE
+		);
+	}
+
+	private Pair<BufferedImage, Double> randomKey() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return new Pair<BufferedImage, Double>(
+				images[random.nextInt(IMAGES)],
+				LEVELS[random.nextInt(LEVELS.length)]
+		);
+	}
+
+	@Benchmark
+	public BufferedImage computeIfAbsentHit() throws Exception {
+		return hits.computeIfAbsent(randomKey(), computation);
+	}
+
+	@Benchmark
+	public BufferedImage computeIfAbsentWithEviction() throws Exception {
+		return misses.computeIfAbsent(randomKey(), computation);
+	}
+}
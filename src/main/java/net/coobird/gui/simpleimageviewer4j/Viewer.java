@@ -22,17 +22,23 @@
 
 package net.coobird.gui.simpleimageviewer4j;
 
+import net.coobird.gui.simpleimageviewer4j.component.ImageCache;
 import net.coobird.gui.simpleimageviewer4j.component.ViewerPanel;
+import net.coobird.gui.simpleimageviewer4j.source.DiskCache;
+import net.coobird.gui.simpleimageviewer4j.source.FileImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
 
 import java.awt.BorderLayout;
 import java.awt.DisplayMode;
 import java.awt.Frame;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
 
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
@@ -65,25 +71,31 @@ List&lt;BufferedImage&gt; images = ...
 
 // A window to view images contained in `images` will be shown.
 new Viewer(images).show();
+</pre>
+ * <p>
+ * When there are too many images to keep in memory at once, an
+ * {@link ImageSource} can supply images on demand instead. Only the images
+ * being displayed, or about to be displayed, will be requested.
+ * </p>
+ * <p>
+ * Images in a directory can be displayed without reading them beforehand:
+ * </p>
+ * <pre>
+// Images will be decoded as they are displayed.
+new Viewer(new File("path/to/images")).show();
 </pre>
  * 
  * @author coobird
  *
  */
 public final class Viewer {
-	private final List<BufferedImage> images;
-	
-	private void checkImagesForNull() {
-		for (BufferedImage image : images) {
-			if (image == null) {
-				throw new NullPointerException("A null image was provided.");
-			}
-		}
-	}
+	private final ImageSource images;
 
 	private static final String DEFAULT_TITLE = "Simple Image Viewer";
 	private final String title;
 
+	private ImageCache imageCache;
+
 	private String validateTitle(String title) {
 		if (title == null) {
 			throw new NullPointerException("Title must not be null.");
@@ -123,8 +135,7 @@ public final class Viewer {
 			throw new NullPointerException("Must specify images.");
 		}
 
-		this.images = new ArrayList<BufferedImage>(Arrays.asList(images));
-		checkImagesForNull();
+		this.images = new ListImageSource(Arrays.asList(images));
 	}
 	
 	/**
@@ -159,8 +170,123 @@ public final class Viewer {
 			throw new NullPointerException("Must specify images.");
 		}
 
-		this.images = new ArrayList<BufferedImage>(images);
-		checkImagesForNull();
+		this.images = new ListImageSource(images);
+	}
+
+	/**
+	 * Instantiates a {@code Viewer} instance to display images from the
+	 * specified source. To display the images, call the {@link #show()} or
+	 * {@link #run()} method on the {@code Viewer} instance.
+	 * <p>
+	 * Images are requested from the source only when they are needed, so a
+	 * source can decode images on demand rather than keeping all of them
+	 * in memory.
+	 *
+	 * @param images The source of images to display.
+	 */
+	public Viewer(ImageSource images) {
+		this(DEFAULT_TITLE, images);
+	}
+
+	/**
+	 * Instantiates a {@code Viewer} instance with the given title to display
+	 * images from the specified source. To display the images, call the
+	 * {@link #show()} or {@link #run()} method on the {@code Viewer} instance.
+	 * <p>
+	 * Images are requested from the source only when they are needed, so a
+	 * source can decode images on demand rather than keeping all of them
+	 * in memory.
+	 *
+	 * @param title The title for the image viewer window ({@link JFrame}).
+	 * @param images The source of images to display.
+	 */
+	public Viewer(String title, ImageSource images) {
+		this.title = validateTitle(title);
+
+		if (images == null || images.size() == 0) {
+			throw new NullPointerException("Must specify images.");
+		}
+
+		this.images = images;
+	}
+
+	/**
+	 * Instantiates a {@code Viewer} instance to display the images in the
+	 * specified directory, or the specified image file.
+	 * To display the images, call the {@link #show()} or {@link #run()}
+	 * method on the {@code Viewer} instance.
+	 * <p>
+	 * Images are decoded in the background only when they are needed, and
+	 * at reduced resolution when displayed zoomed out. If the
+	 * {@code net.coobird.gui.simpleimageviewer4j.diskCache} system property
+	 * names a directory, images decoded at reduced resolution are kept there
+	 * and reused when the same files are displayed again.
+	 *
+	 * @param file A directory containing images, or an image file.
+	 * @throws IOException If the directory could not be read, or the
+	 *                     disk cache directory could not be created.
+	 */
+	public Viewer(File file) throws IOException {
+		this(DEFAULT_TITLE, file);
+	}
+
+	/**
+	 * Instantiates a {@code Viewer} instance with the given title to display
+	 * the images in the specified directory, or the specified image file.
+	 * To display the images, call the {@link #show()} or {@link #run()}
+	 * method on the {@code Viewer} instance.
+	 * <p>
+	 * Images are decoded in the background only when they are needed, and
+	 * at reduced resolution when displayed zoomed out. If the
+	 * {@code net.coobird.gui.simpleimageviewer4j.diskCache} system property
+	 * names a directory, images decoded at reduced resolution are kept there
+	 * and reused when the same files are displayed again.
+	 *
+	 * @param title The title for the image viewer window ({@link JFrame}).
+	 * @param file A directory containing images, or an image file.
+	 * @throws IOException If the directory could not be read, or the
+	 *                     disk cache directory could not be created.
+	 */
+	public Viewer(String title, File file) throws IOException {
+		this(title, createSource(file));
+	}
+
+	/**
+	 * System property naming a directory in which images decoded at reduced
+	 * resolution are kept between runs, for viewers of files.
+	 */
+	private static final String DISK_CACHE_PROPERTY = "net.coobird.gui.simpleimageviewer4j.diskCache";
+
+	private static ImageSource createSource(File file) throws IOException {
+		if (file == null) {
+			throw new NullPointerException("Must specify a file or directory.");
+		}
+
+		String diskCacheDirectory = System.getProperty(DISK_CACHE_PROPERTY);
+		DiskCache diskCache = diskCacheDirectory != null
+				? new DiskCache(new File(diskCacheDirectory))
+				: null;
+
+		if (file.isDirectory()) {
+			return FileImageSource.fromDirectory(file, diskCache);
+		}
+		return new FileImageSource(Collections.singletonList(file), diskCache);
+	}
+
+	/**
+	 * Sets the cache which the viewer will keep scaled renditions of images
+	 * in. Viewers sharing a cache, such as {@link ImageCache#getShared()},
+	 * reuse each other's renditions of the same images, and share a single
+	 * memory budget.
+	 * <p>
+	 * By default, each viewer window uses a cache of its own, which is
+	 * cleared when the window is closed.
+	 *
+	 * @param imageCache The cache for scaled renditions, or {@code null}
+	 *                   for a cache of the viewer's own.
+	 */
+	public void setImageCache(ImageCache imageCache) {
+		this.imageCache = imageCache;
 	}
 
 	private Point getCenterOfScreen(Frame f) {
@@ -195,7 +321,7 @@ public final class Viewer {
 		f.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		f.setLayout(new BorderLayout());
 
-		f.add(new ViewerPanel(images), BorderLayout.CENTER);
+		f.add(new ViewerPanel(images, imageCache), BorderLayout.CENTER);
 		f.pack();
 
 		f.setLocation(getCenterOfScreen(f));
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performs high-quality downscaling of images off the Event Dispatch Thread.
+ * Renditions are produced through an {@link ImagePyramid}.
+ * <p>
+ * Only the most recently requested rendition is worked on. Requesting a
+ * different rendition, or calling {@link #cancel()}, cancels the previous
+ * request and removes it from the work queue.
+ * <p>
+ * All methods must be called from the EDT.
+ */
+final class AsyncScaler {
+	private static final int THREADS =
+			Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("scaler")
+	);
+
+	/**
+	 * Prefetching runs on its own thread at a lower priority, so that it never
+	 * delays renditions of the image which is being displayed.
+	 */
+	private static final ThreadPoolExecutor PREFETCH_EXECUTOR = new ThreadPoolExecutor(
+			1, 1,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("prefetch", Thread.NORM_PRIORITY - 1)
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+		PREFETCH_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final Cache<ScaleKey, BufferedImage> cache;
+	private final Runnable onScaled;
+
+	private final ImagePyramid pyramid;
+
+	private BufferedImage pendingImage;
+	private double pendingMagnification;
+	private Future<?> pending;
+
+	/**
+	 * The most recent rendition at a magnification which is not a pyramid
+	 * level. Such renditions are not cached, so only this one is kept.
+	 */
+	private BufferedImage renditionImage;
+	private double renditionMagnification;
+	private BufferedImage rendition;
+
+	private BufferedImage preparingImage;
+	private Future<?> preparing;
+
+	private final List<Future<?>> prefetching = new ArrayList<Future<?>>();
+
+	/**
+	 * @param cache     Cache which completed renditions are stored into.
+	 * @param onScaled  Called on the EDT when a requested rendition is ready.
+	 */
+	AsyncScaler(Cache<ScaleKey, BufferedImage> cache, Runnable onScaled) {
+		this.cache = cache;
+		this.onScaled = onScaled;
+		this.pyramid = new ImagePyramid(cache);
+	}
+
+	/**
+	 * Starts building the pyramid levels for the image in the background,
+	 * down to the level needed for the given magnification. Preparation of
+	 * any other image is cancelled.
+	 */
+	void prepare(final BufferedImage image, final double minimumMagnification) {
+		if (image == preparingImage) {
+			return;
+		}
+
+		if (preparing != null) {
+			preparing.cancel(false);
+			EXECUTOR.purge();
+		}
+		preparingImage = image;
+		preparing = EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					pyramid.build(image, minimumMagnification);
+
+				} catch (Exception e) {
+					// Levels which could not be built are not cached, and
+					// are computed again when they are requested.
+
+				} catch (OutOfMemoryError e) {
+					// Likewise, and the cache may have evicted enough by then.
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the high-quality rendition of the image at the given
+	 * magnification if it is available. Otherwise, schedules it to be
+	 * computed in the background and returns {@code null}.
+	 */
+	BufferedImage request(
+			final BufferedImage image,
+			final double magnification,
+			final int width,
+			final int height
+	) {
+		BufferedImage scaled = getIfScaled(image, magnification);
+		if (scaled != null) {
+			return scaled;
+		}
+
+		if (isPending(image, magnification)) {
+			// Already being worked on.
+			return null;
+		}
+
+		cancel();
+		pendingImage = image;
+		pendingMagnification = magnification;
+		pending = EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				BufferedImage result;
+				try {
+					result = pyramid.scale(image, magnification, width, height);
+
+				} catch (Exception e) {
+					// The closest available level is drawn instead. The
+					// rendition is requested again on a later repaint.
+					result = null;
+
+				} catch (OutOfMemoryError e) {
+					result = null;
+				}
+
+				final BufferedImage scaled = result;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (isPending(image, magnification)) {
+							pendingImage = null;
+							pending = null;
+							if (scaled == null) {
+								return;
+							}
+							if (!isLevel(magnification)) {
+								renditionImage = image;
+								renditionMagnification = magnification;
+								rendition = scaled;
+							}
+							onScaled.run();
+						}
+					}
+				});
+			}
+		});
+		return null;
+	}
+
+	/**
+	 * Returns the high-quality rendition of the image at the given
+	 * magnification if it is available, or {@code null}. Nothing is
+	 * scheduled by this method.
+	 */
+	BufferedImage getIfScaled(BufferedImage image, double magnification) {
+		if (image == renditionImage && magnification == renditionMagnification) {
+			return rendition;
+		}
+		if (isLevel(magnification)) {
+			return cache.getIfPresent(ScaleKey.of(image, magnification));
+		}
+		return null;
+	}
+
+	private boolean isPending(BufferedImage image, double magnification) {
+		return image == pendingImage && magnification == pendingMagnification;
+	}
+
+	private static boolean isLevel(double magnification) {
+		return ImagePyramid.levelFor(magnification) == magnification;
+	}
+
+	/**
+	 * Obtains the images at the given positions through the loader, and
+	 * computes the pyramid levels needed for the given magnification in the
+	 * background, in the order given. Any previous prefetching which has not
+	 * started yet is cancelled.
+	 */
+	void prefetch(final ImageLoader loader, List<Integer> indices, final double magnification) {
+		cancelPrefetch();
+		if (magnification >= 1.0) {
+			return;
+		}
+
+		for (final int index : indices) {
+			prefetching.add(PREFETCH_EXECUTOR.submit(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						LoadedImage image = loader.fetch(index, magnification);
+						double relativeMagnification = magnification / image.scale();
+						if (relativeMagnification < 1.0) {
+							pyramid.build(image.image, relativeMagnification);
+						}
+
+					} catch (IOException e) {
+						// Nothing to prepare. The failure will be reported
+						// if the image is navigated to.
+
+					} catch (Exception e) {
+						// Prefetching is only an optimization. Whatever was
+						// not prepared is computed when it is displayed.
+
+					} catch (OutOfMemoryError e) {
+						// Likewise.
+					}
+				}
+			}));
+		}
+	}
+
+	private void cancelPrefetch() {
+		if (prefetching.isEmpty()) {
+			return;
+		}
+		for (Future<?> future : prefetching) {
+			future.cancel(false);
+		}
+		prefetching.clear();
+		PREFETCH_EXECUTOR.purge();
+	}
+
+	/**
+	 * Returns the smallest already computed pyramid level which can be
+	 * scaled to the given magnification, or the image itself if there is
+	 * none. Nothing is scheduled by this method.
+	 */
+	BufferedImage preview(BufferedImage image, double magnification) {
+		for (double level = ImagePyramid.levelFor(magnification); level < 1.0; level *= 2) {
+			BufferedImage scaled = cache.getIfPresent(ScaleKey.of(image, level));
+			if (scaled != null) {
+				return scaled;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Cancels all work, and forgets the most recent rendition, so that no
+	 * images are kept by this scaler.
+	 */
+	void clear() {
+		cancel();
+		cancelPrefetch();
+		if (preparing != null) {
+			preparing.cancel(false);
+			EXECUTOR.purge();
+		}
+		preparing = null;
+		preparingImage = null;
+		renditionImage = null;
+		rendition = null;
+	}
+
+	/**
+	 * Cancels the outstanding request, if any.
+	 */
+	void cancel() {
+		if (pending != null) {
+			pending.cancel(false);
+			EXECUTOR.purge();
+		}
+		pending = null;
+		pendingImage = null;
+	}
+}
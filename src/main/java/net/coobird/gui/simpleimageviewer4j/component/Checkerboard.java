@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * The checkerboard pattern drawn behind images, so that transparent parts
+ * of an image can be told apart.
+ */
+final class Checkerboard {
+	private static final int CHECKER_WIDTH = 10;
+	private static final int CHECKER_HEIGHT = 10;
+
+	/**
+	 * Size of the pre-rendered pattern, a multiple of the pattern size.
+	 */
+	private static final int TILE_SIZE = CHECKER_WIDTH * 2 * 16;
+
+	/**
+	 * Pattern rendered once into an image compatible with the destination,
+	 * so that the background is drawn with a few blits rather than two
+	 * fills per cell.
+	 */
+	private BufferedImage tile;
+	private GraphicsConfiguration configuration;
+
+	private synchronized BufferedImage getTile(GraphicsConfiguration gc) {
+		if (tile != null && gc == configuration) {
+			return tile;
+		}
+
+		int size = TILE_SIZE;
+		BufferedImage tile = gc != null
+				? gc.createCompatibleImage(size, size, Transparency.OPAQUE)
+				: new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+
+		Graphics g = tile.getGraphics();
+		g.setColor(Color.gray);
+		g.fillRect(0, 0, size, size);
+		g.setColor(Color.lightGray);
+		for (int j = 0; j < size; j += CHECKER_HEIGHT * 2) {
+			for (int i = 0; i < size; i += CHECKER_WIDTH * 2) {
+				g.fillRect(i, j, CHECKER_WIDTH, CHECKER_HEIGHT);
+				g.fillRect(i + CHECKER_WIDTH, j + CHECKER_HEIGHT, CHECKER_WIDTH, CHECKER_HEIGHT);
+			}
+		}
+		g.dispose();
+
+		this.tile = tile;
+		this.configuration = gc;
+		return tile;
+	}
+
+	/**
+	 * Fills the given area with the pattern.
+	 *
+	 * @param g      Graphics to draw to.
+	 * @param gc     Configuration of the destination, or {@code null} if it
+	 *               is not a screen.
+	 * @param x      Horizontal location of the area.
+	 * @param y      Vertical location of the area.
+	 * @param width  Width of the area.
+	 * @param height Height of the area.
+	 */
+	void fill(Graphics g, GraphicsConfiguration gc, int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		BufferedImage tile = getTile(gc);
+		int size = TILE_SIZE;
+
+		// Tiles are aligned to the origin, so the pattern does not move as
+		// different parts of it are painted.
+		Graphics clipped = g.create();
+		clipped.clipRect(x, y, width, height);
+		for (int j = y / size * size; j < y + height; j += size) {
+			for (int i = x / size * size; i < x + width; i += size) {
+				clipped.drawImage(tile, i, j, null);
+			}
+		}
+		clipped.dispose();
+	}
+}
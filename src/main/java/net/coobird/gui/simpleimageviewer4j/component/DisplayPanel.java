@@ -24,45 +24,229 @@ package net.coobird.gui.simpleimageviewer4j.component;
 
 import net.coobird.gui.simpleimageviewer4j.model.Zoom;
 import net.coobird.gui.simpleimageviewer4j.model.ZoomChangeListener;
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.LoadingImageSource;
 import net.coobird.gui.simpleimageviewer4j.util.Cache;
-import net.coobird.gui.simpleimageviewer4j.util.Pair;
-import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.gui.simpleimageviewer4j.util.CacheStats;
 
 import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
 
 public final class DisplayPanel extends JPanel implements ZoomChangeListener {
 
 	private static final double[] ZOOM_LEVELS = new double[] { 0.25, 0.5, 1.0, 2.0, 4.0 };
 	private static final int DEFAULT_ZOOM = 2;
-	private final Zoom zoom = new Zoom(ZOOM_LEVELS, DEFAULT_ZOOM);
+	private static final double MINIMUM_ZOOM = 1.0 / 64;
+	private static final double MAXIMUM_ZOOM = 32.0;
+	private final Zoom zoom = new Zoom(ZOOM_LEVELS, DEFAULT_ZOOM, MINIMUM_ZOOM, MAXIMUM_ZOOM);
+
+	/**
+	 * Time after the last change of magnification after which zooming is
+	 * considered to have settled, in milliseconds. Until then, only quickly
+	 * scaled images are drawn, and no images are decoded or resized, so that
+	 * a burst of changes only results in work for the final magnification.
+	 */
+	private static final int SETTLE_DELAY = 150;
+	private final Timer settleTimer = new Timer(SETTLE_DELAY, new ActionListener() {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			zoomSettled();
+		}
+	});
+
+	/**
+	 * Time after navigating to an image within which further navigation is
+	 * considered part of the same burst, such as from a held key, in
+	 * milliseconds. Within a burst, only the position is updated, and the
+	 * image is loaded once navigation pauses.
+	 */
+	private static final int NAVIGATION_DELAY = 100;
+	private final Timer navigationTimer = new Timer(NAVIGATION_DELAY, new ActionListener() {
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			navigationSettled();
+		}
+	});
+
+	/**
+	 * Index of the image which was last loaded, which differs from the
+	 * current index during a burst of navigation.
+	 */
+	private int loadedIndex = 0;
+
+	/**
+	 * Whether images were released as the panel stopped being displayed.
+	 */
+	private boolean released;
+
+	/**
+	 * System property for the number of images on each side of the current
+	 * image whose scaled renditions are prepared ahead of navigation.
+	 */
+	private static final String PREFETCH_PROPERTY = "net.coobird.gui.simpleimageviewer4j.prefetch";
+	private static final int DEFAULT_PREFETCH_WINDOW = 2;
+	private int prefetchWindow = Integer.getInteger(PREFETCH_PROPERTY, DEFAULT_PREFETCH_WINDOW);
+
+	/**
+	 * System property which, when set to {@code true}, displays images in
+	 * their original format rather than copies in the format of the screen.
+	 */
+	private static final String KEEP_ORIGINALS_PROPERTY = "net.coobird.gui.simpleimageviewer4j.keepOriginals";
+	private boolean keepOriginals = Boolean.getBoolean(KEEP_ORIGINALS_PROPERTY);
 
 	private int index = 0;
-	private List<BufferedImage> images;
-	private BufferedImage curImage;
+	private final ImageSource images;
+	private final ImageLoader loader;
+
+	/**
+	 * The image being displayed, or {@code null} while it is being loaded.
+	 */
+	private LoadedImage curImage;
+
+	/**
+	 * Magnification for which the panel was last sized.
+	 */
+	private double viewMagnification = zoom.getMagnification();
+
+	/**
+	 * Point in the viewport to zoom around for the next change of
+	 * magnification, or {@code null} to zoom around the center.
+	 */
+	private Point zoomAnchor;
+
+	/**
+	 * Source of regions of the current image, when it is decoded a region at
+	 * a time.
+	 */
+	private TileRenderer.RegionSource regions;
+	private int imageWidth;
+	private int imageHeight;
+	private String loadError;
+
 	private List<DisplayChangeListener> listeners = new ArrayList<DisplayChangeListener>();
 
 	public DisplayPanel(List<BufferedImage> images) {
-		// We'll keep a separate instance of the list, so that changes to
-		// the original list will not immediately apply to the images
+		// The source keeps a separate instance of the list, so that changes
+		// to the original list will not immediately apply to the images
 		// that this class knows of.
 		//
 		// If adding/removing images are required, a separate interface
 		// should be provided, which should keep track of the internal
 		// state correctly. (Such as calling all listeners.)
-		this.images = new ArrayList<BufferedImage>(images);
+		this(new ListImageSource(images));
+	}
+
+	public DisplayPanel(ImageSource images) {
+		this(images, new ImageCache(), true);
+	}
+
+	/**
+	 * Instantiates a panel which displays images from the given source,
+	 * and keeps scaled renditions in the given cache, which may be shared
+	 * with other panels.
+	 *
+	 * @param images The source of images to display.
+	 * @param cache  The cache for scaled renditions.
+	 */
+	public DisplayPanel(ImageSource images, ImageCache cache) {
+		this(images, cache, false);
+	}
+
+	private DisplayPanel(ImageSource images, ImageCache imageCache, boolean ownsCache) {
+		if (images == null) {
+			throw new NullPointerException("Must specify images.");
+		}
+		if (imageCache == null) {
+			throw new NullPointerException("Must specify a cache.");
+		}
+		this.images = images;
+		this.imageCache = imageCache;
+		this.cache = imageCache.cache;
+		this.ownsCache = ownsCache;
+		this.scaler = new AsyncScaler(cache, new Runnable() {
+			@Override
+			public void run() {
+				repaintVisible();
+			}
+		});
+		this.converter = new ImageConverter(cache);
+		this.loader = new ImageLoader(images, new ImageLoader.Callback() {
+			@Override
+			public void loaded(int index, LoadedImage image) {
+				imageLoaded(index, image);
+			}
+
+			@Override
+			public void failed(int index, IOException e) {
+				imageFailed(e);
+			}
+		});
 
-		curImage = this.images.get(index);
+		if (!keepOriginals) {
+			loader.setConverter(converter);
+		}
+		loader.load(index, getMagnification());
 
 		zoom.addListener(this);
+		settleTimer.setRepeats(false);
+		navigationTimer.setRepeats(false);
+	}
+
+	private void imageLoaded(final int index, LoadedImage image) {
+		boolean resized = image.width != imageWidth || image.height != imageHeight;
+
+		curImage = image;
+		regions = null;
+		if (image.regionDecoded) {
+			final LoadingImageSource source = (LoadingImageSource) images;
+			regions = new TileRenderer.RegionSource() {
+				@Override
+				public BufferedImage decode(Rectangle region, int subsampling) throws IOException {
+					return source.getRegion(index, region, subsampling);
+				}
+			};
+		}
+		imageWidth = image.width;
+		imageHeight = image.height;
+		loadError = null;
+
+		// An image which is still to be converted is shown until its copy is
+		// delivered, and the pyramid is built from the copy only. Should the
+		// conversion fail, levels are computed as they are requested.
+		if (keepOriginals || image.regionDecoded || converter.isDrawnAsIs(image.image)) {
+			scaler.prepare(image.image, ZOOM_LEVELS[0] / image.scale());
+		}
+		tileRenderer.clear();
+		repaintVisible();
+
+		if (resized) {
+			updateLayout();
+		}
+	}
+
+	private void imageFailed(IOException e) {
+		curImage = null;
+		regions = null;
+		loadError = e.getMessage() != null ? e.getMessage() : e.toString();
+		repaintVisible();
 	}
 
 	/**
@@ -90,38 +274,251 @@ public final class DisplayPanel extends JPanel implements ZoomChangeListener {
 	}
 
 	private void updateImage(int index) {
-		curImage = images.get(index);
+		loadedIndex = index;
+		scaler.cancel();
+		if (loader.isAsynchronous()) {
+			// Don't keep showing the previous image while loading.
+			curImage = null;
+			regions = null;
+			loadError = null;
+			tileRenderer.clear();
+		}
+		loader.load(index, getMagnification());
+		prefetchNeighbours();
 		notifyListeners();
-		repaint();
+		repaintVisible();
+		updateLayout();
+	}
+
+	/**
+	 * Resizes the panel for the current image and magnification, and
+	 * centers the image in the viewport.
+	 */
+	private void updateLayout() {
+		updateLayout(null);
+	}
+
+	/**
+	 * Resizes the panel for the current image and magnification, directly
+	 * rather than through a relayout of the parent. If an anchor is given,
+	 * the part of the image under it stays in place, otherwise the image is
+	 * centered in the viewport.
+	 *
+	 * @param anchor Point in the viewport, or {@code null}.
+	 */
+	private void updateLayout(Point anchor) {
+		if (!(getParent() instanceof JViewport)) {
+			viewMagnification = getMagnification();
+			revalidate();
+			return;
+		}
+
+		JViewport viewport = (JViewport) getParent();
+		Dimension extent = viewport.getExtentSize();
+		Point position = viewport.getViewPosition();
+
+		int width = getMagnifiedWidth();
+		int height = getMagnifiedHeight();
+		int viewWidth = Math.max(width, extent.width);
+		int viewHeight = Math.max(height, extent.height);
+
+		int x;
+		int y;
+		if (anchor != null) {
+			// Location within the full image under the anchor, from the size
+			// and magnification the panel currently has.
+			double previous = viewMagnification;
+			int previousWidth = ImagePyramid.scaledSize(imageWidth, previous);
+			int previousHeight = ImagePyramid.scaledSize(imageHeight, previous);
+			double imageX = (position.x + anchor.x - Math.max(0, (getWidth() - previousWidth) / 2)) / previous;
+			double imageY = (position.y + anchor.y - Math.max(0, (getHeight() - previousHeight) / 2)) / previous;
+
+			double magnification = getMagnification();
+			x = (int) Math.round(Math.max(0, (viewWidth - width) / 2) + imageX * magnification) - anchor.x;
+			y = (int) Math.round(Math.max(0, (viewHeight - height) / 2) + imageY * magnification) - anchor.y;
 
-		int x = -(getMagnifiedWidth() / 2) + (this.getWidth() / 2);
-		int y = -(getMagnifiedHeight() / 2) + (this.getHeight() / 2);
-		this.setLocation(new Point(x, y));
+		} else {
+			x = (viewWidth - extent.width) / 2;
+			y = (viewHeight - extent.height) / 2;
+		}
+		x = Math.max(0, Math.min(x, viewWidth - extent.width));
+		y = Math.max(0, Math.min(y, viewHeight - extent.height));
 
-		// Forces layout of parent, so that the scrollbar will appear when
-		// displaying a large image.
-		// doLayout() forces a call to getPreferredSize and getLocation.
-		this.getParent().doLayout();
+		viewMagnification = getMagnification();
+		setSize(viewWidth, viewHeight);
+		viewport.setViewPosition(new Point(x, y));
+		repaintVisible();
 	}
 
 	public void showPrevious() {
 		if (hasPrevious()) {
-			updateImage(--index);
+			navigateTo(index - 1);
 		}
 	}
 
 	public void showNext() {
 		if (hasNext()) {
-			updateImage(++index);
+			navigateTo(index + 1);
+		}
+	}
+
+	public void showFirst() {
+		navigateTo(0);
+	}
+
+	public void showLast() {
+		navigateTo(images.size() - 1);
+	}
+
+	/**
+	 * Displays the image at the given position.
+	 * @param index Zero-based index of the image.
+	 */
+	public void show(int index) {
+		if (index < 0 || index >= images.size()) {
+			throw new IndexOutOfBoundsException("Index out of range: " + index);
+		}
+		navigateTo(index);
+	}
+
+	private void navigateTo(int index) {
+		if (index == this.index) {
+			return;
+		}
+		this.index = index;
+
+		if (navigationTimer.isRunning()) {
+			// Part of a burst, so only the position is shown for now.
+			navigationTimer.restart();
+			notifyListeners();
+			return;
+		}
+		navigationTimer.restart();
+		updateImage(index);
+	}
+
+	private void navigationSettled() {
+		if (index != loadedIndex) {
+			updateImage(index);
 		}
 	}
 
 	@Override
 	public void zoomChanged(double magnification) {
-		repaint();
+		scaler.cancel();
+		settleTimer.restart();
+
+		Point anchor = zoomAnchor;
+		zoomAnchor = null;
+		if (anchor == null && getParent() instanceof JViewport) {
+			Dimension extent = ((JViewport) getParent()).getExtentSize();
+			anchor = new Point(extent.width / 2, extent.height / 2);
+		}
+		updateLayout(anchor);
 		notifyListeners();
 	}
 
+	/**
+	 * Multiplies the magnification by the given factor, keeping the part of
+	 * the image at the given point in place.
+	 * @param factor Factor to multiply the magnification by.
+	 * @param point  Point on this panel to zoom around.
+	 */
+	public void zoomAt(double factor, Point point) {
+		zoomAnchor = getParent() instanceof JViewport
+				? SwingUtilities.convertPoint(this, point, getParent())
+				: null;
+		zoom.zoomBy(factor);
+		zoomAnchor = null;
+	}
+
+	private void zoomSettled() {
+		double magnification = getMagnification();
+
+		// Decode the image again if it was decoded at a resolution which is
+		// too low for the new magnification. The current image is displayed
+		// in the meantime. Images decoded a region at a time obtain detail
+		// as it is displayed instead.
+		int subsampling = ImageLoader.subsamplingFor(magnification);
+		if (curImage != null && !curImage.regionDecoded && curImage.scale() < 1.0 / subsampling) {
+			loader.load(loadedIndex, magnification);
+		}
+		prefetchNeighbours();
+		repaintVisible();
+	}
+
+	/**
+	 * Sets the number of images on each side of the current image whose
+	 * scaled renditions are prepared in the background.
+	 * @param prefetchWindow Number of images, or {@code 0} to disable.
+	 */
+	public void setPrefetchWindow(int prefetchWindow) {
+		if (prefetchWindow < 0) {
+			throw new IllegalArgumentException("Prefetch window must not be negative.");
+		}
+		this.prefetchWindow = prefetchWindow;
+		prefetchNeighbours();
+	}
+
+	public int getPrefetchWindow() {
+		return prefetchWindow;
+	}
+
+	private void prefetchNeighbours() {
+		// Nearest images first, alternating between next and previous.
+		List<Integer> neighbours = new ArrayList<Integer>();
+		for (int i = 1; i <= prefetchWindow; i++) {
+			if (index + i < images.size()) {
+				neighbours.add(index + i);
+			}
+			if (index - i >= 0) {
+				neighbours.add(index - i);
+			}
+		}
+		scaler.prefetch(loader, neighbours, getMagnification());
+	}
+
+	/**
+	 * Sets whether images are displayed in their original format, for
+	 * pixel-exact inspection. Otherwise, images are displayed from copies
+	 * in the format of the screen, which are faster to draw.
+	 * @param keepOriginals {@code true} to display original images.
+	 */
+	public void setKeepOriginals(boolean keepOriginals) {
+		if (keepOriginals == this.keepOriginals) {
+			return;
+		}
+		this.keepOriginals = keepOriginals;
+		loader.setConverter(keepOriginals ? null : converter);
+		updateImage(index);
+	}
+
+	public boolean isKeepOriginals() {
+		return keepOriginals;
+	}
+
+	/**
+	 * Changes the magnification so that the whole image fits in the visible
+	 * area of the panel.
+	 */
+	public void fitToWindow() {
+		if (imageWidth == 0 || imageHeight == 0) {
+			return;
+		}
+
+		Dimension size = getParent() instanceof JViewport
+				? ((JViewport) getParent()).getExtentSize()
+				: getSize();
+		if (size.width == 0 || size.height == 0) {
+			return;
+		}
+
+		zoom.zoomTo(Math.min(
+				(double) size.width / imageWidth,
+				(double) size.height / imageHeight
+		));
+	}
+
 	public Zoom getZoomModel() {
 		return zoom;
 	}
@@ -140,37 +537,75 @@ public final class DisplayPanel extends JPanel implements ZoomChangeListener {
 		}
 	}
 
-	private static final int CHECKER_WIDTH = 10;
-	private static final int CHECKER_HEIGHT = 10;
+	private final Checkerboard checkerboard = new Checkerboard();
 
-	private void drawBackground(Graphics g) {
-		Rectangle visibleRect = this.getVisibleRect();
-		int width = visibleRect.x + visibleRect.width;
-		int height = visibleRect.y + visibleRect.height;
-		int startX = (visibleRect.x / (CHECKER_WIDTH * 2)) * (CHECKER_WIDTH * 2);
-		int startY = (visibleRect.y / (CHECKER_HEIGHT * 2)) * (CHECKER_HEIGHT * 2);
+	/**
+	 * Draws the background over the visible area which needs painting,
+	 * except for the given area which will be covered by an opaque image.
+	 */
+	private void drawBackground(Graphics g, Rectangle covered) {
+		Rectangle area = getVisibleRect();
+		Rectangle clip = g.getClipBounds();
+		if (clip != null) {
+			area = area.intersection(clip);
+		}
+		if (area.isEmpty()) {
+			return;
+		}
 
-		g.setColor(Color.gray);
-		g.fillRect(visibleRect.x, visibleRect.y, visibleRect.width, visibleRect.height);
+		if (covered == null || !covered.intersects(area)) {
+			fillBackground(g, area.x, area.y, area.width, area.height);
 
-		g.setColor(Color.lightGray);
-		for (int j = startY; j <= height; j += CHECKER_HEIGHT * 2) {
-			for (int i = startX; i <= width; i += CHECKER_WIDTH * 2) {
-				g.fillRect(i, j, CHECKER_WIDTH, CHECKER_HEIGHT);
-				g.fillRect(i + CHECKER_WIDTH, j + CHECKER_HEIGHT, CHECKER_WIDTH, CHECKER_HEIGHT);
-			}
+		} else {
+			// Only the margins around the image.
+			Rectangle inside = area.intersection(covered);
+			fillBackground(g, area.x, area.y, area.width, inside.y - area.y);
+			fillBackground(g, area.x, inside.y + inside.height, area.width, area.y + area.height - inside.y - inside.height);
+			fillBackground(g, area.x, inside.y, inside.x - area.x, inside.height);
+			fillBackground(g, inside.x + inside.width, inside.y, area.x + area.width - inside.x - inside.width, inside.height);
 		}
 	}
 
-	private final Cache<Pair<BufferedImage, Double>, BufferedImage> cache =
-			new Cache<Pair<BufferedImage, Double>, BufferedImage>();
+	private void fillBackground(Graphics g, int x, int y, int width, int height) {
+		checkerboard.fill(g, getGraphicsConfiguration(), x, y, width, height);
+	}
+
+	private final ImageCache imageCache;
+	private final Cache<ScaleKey, BufferedImage> cache;
+
+	/**
+	 * Whether the cache is used only by this panel, and can be cleared when
+	 * the panel is no longer displayed.
+	 */
+	private final boolean ownsCache;
+
+	/**
+	 * System property which, when set to {@code true}, registers the scaled
+	 * image cache as a JMX MBean while the panel is displayed.
+	 */
+	private static final String JMX_PROPERTY = "net.coobird.gui.simpleimageviewer4j.jmx";
+
+	/**
+	 * Whether this panel holds the registration of the cache's MBean.
+	 */
+	private boolean monitoring;
+
+	private final AsyncScaler scaler;
+	private final ImageConverter converter;
+
+	private final TileRenderer tileRenderer = new TileRenderer(new TileRenderer.Callback() {
+		@Override
+		public void tileRendered(Rectangle bounds) {
+			repaint(bounds);
+		}
+	});
 
 	private int getMagnifiedWidth() {
-		return (int)Math.round(curImage.getWidth() * getMagnification());
+		return ImagePyramid.scaledSize(imageWidth, getMagnification());
 	}
 
 	private int getMagnifiedHeight() {
-		return (int)Math.round(curImage.getHeight() * getMagnification());
+		return ImagePyramid.scaledSize(imageHeight, getMagnification());
 	}
 
 	@Override
@@ -187,29 +622,164 @@ public final class DisplayPanel extends JPanel implements ZoomChangeListener {
 		x = Math.max(0, x);
 		y = Math.max(0, y);
 
-		drawBackground(g);
-		if (magnification < 1.0) {
-			try {
-				Pair<BufferedImage, Double> key = new Pair<BufferedImage, Double>(curImage, magnification);
-				BufferedImage img = cache.computeIfAbsent(key, new Callable<BufferedImage>() {
-					@Override
-					public BufferedImage call() throws Exception {
-						return Thumbnails.of(curImage)
-								.size(width, height)
-								.asBufferedImage();
-					}
-				});
+		if (curImage == null) {
+			drawBackground(g, null);
+			if (loadError != null) {
+				drawMessage(g, loadError);
+			}
+			return;
+		}
+
+		// The image is drawn over its whole area by every path below, so
+		// there is no need for the background under an opaque image, nor to
+		// blend the image with it.
+		if (curImage.opaque) {
+			drawBackground(g, new Rectangle(x, y, width, height));
+
+			Graphics2D g2d = (Graphics2D) g.create();
+			g2d.setComposite(AlphaComposite.Src);
+			paintImage(g2d, magnification, x, y, width, height);
+			g2d.dispose();
+
+		} else {
+			drawBackground(g, null);
+			paintImage(g, magnification, x, y, width, height);
+		}
+	}
+
+	private void paintImage(Graphics g, double magnification, int x, int y, int width, int height) {
+		BufferedImage image = curImage.image;
+
+		// Magnification relative to the image at hand, which may have been
+		// decoded at reduced resolution.
+		double relativeMagnification = magnification / curImage.scale();
+
+		if (width == image.getWidth() && height == image.getHeight()) {
+			g.drawImage(image, x, y, width, height, null);
+
+		} else if (relativeMagnification < 1.0) {
+			// While zooming, only use renditions which are already available.
+			BufferedImage img = settleTimer.isRunning()
+					? scaler.getIfScaled(image, relativeMagnification)
+					: scaler.request(image, relativeMagnification, width, height);
+			if (img != null) {
 				g.drawImage(img, x, y, width, height, null);
 
-			} catch (Exception e) {
-				throw new IllegalStateException("This should not happen.", e);
+			} else {
+				// High-quality image is not ready yet, so draw a quick preview.
+				drawQuickly(g, scaler.preview(image, relativeMagnification), x, y, width, height);
 			}
 
+		} else if (regions != null && settleTimer.isRunning()) {
+			// Regions are only decoded once zooming has settled.
+			drawQuickly(g, image, x, y, width, height);
+
 		} else {
-			g.drawImage(curImage, x, y, width, height, null);
+			// The clip only decides what is drawn. Tiles are kept for the
+			// whole visible area, as a repaint of a single tile would
+			// otherwise discard the others.
+			Rectangle visible = getVisibleRect();
+			Rectangle area = visible;
+			Rectangle clip = g.getClipBounds();
+			if (clip != null) {
+				area = area.intersection(clip);
+			}
+
+			if (regions != null) {
+				tileRenderer.paint(
+						g, regions, image, imageWidth, imageHeight,
+						x, y, width, height, area, visible, ImageLoader.subsamplingFor(magnification)
+				);
+			} else {
+				tileRenderer.paint(g, image, x, y, width, height, area, visible);
+			}
 		}
 	}
 
+	private static void drawQuickly(Graphics g, BufferedImage image, int x, int y, int width, int height) {
+		Graphics2D g2d = (Graphics2D) g.create();
+		g2d.setRenderingHint(
+				RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+		);
+		g2d.drawImage(image, x, y, width, height, null);
+		g2d.dispose();
+	}
+
+	/**
+	 * Repaints only the part of the panel which is visible, which may be
+	 * much smaller than the panel when zoomed in.
+	 */
+	private void repaintVisible() {
+		Rectangle visibleRect = getVisibleRect();
+		if (!visibleRect.isEmpty()) {
+			repaint(visibleRect);
+		}
+	}
+
+	private void drawMessage(Graphics g, String message) {
+		Rectangle visibleRect = getVisibleRect();
+		FontMetrics metrics = g.getFontMetrics();
+		int x = visibleRect.x + (visibleRect.width - metrics.stringWidth(message)) / 2;
+		int y = visibleRect.y + (visibleRect.height + metrics.getAscent()) / 2;
+
+		g.setColor(Color.black);
+		g.drawString(message, x, y);
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		if (Boolean.getBoolean(JMX_PROPERTY) && !monitoring) {
+			imageCache.acquireMonitor();
+			monitoring = true;
+		}
+		if (released) {
+			released = false;
+			updateImage(index);
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		if (monitoring) {
+			imageCache.releaseMonitor();
+			monitoring = false;
+		}
+		release();
+		super.removeNotify();
+	}
+
+	/**
+	 * Cancels background work and releases scaled images once the panel is
+	 * no longer displayed, such as when its window is disposed, so that
+	 * they are not kept for as long as the panel itself is referenced.
+	 * A cache shared with other panels is left as it is.
+	 * The image is loaded again if the panel is displayed again.
+	 */
+	private void release() {
+		settleTimer.stop();
+		navigationTimer.stop();
+		loader.cancel();
+		scaler.clear();
+		tileRenderer.clear();
+		if (ownsCache) {
+			cache.clear();
+		}
+
+		curImage = null;
+		regions = null;
+		released = true;
+	}
+
+	/**
+	 * Returns statistics of the cache holding downscaled images.
+	 * @return Statistics of the scaled image cache.
+	 */
+	public CacheStats getCacheStats() {
+		return cache.stats();
+	}
+
 	@Override
 	public Dimension getPreferredSize() {
 		return new Dimension(getMagnifiedWidth(), getMagnifiedHeight());
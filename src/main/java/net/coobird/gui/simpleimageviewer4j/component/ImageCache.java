@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.CacheMonitor;
+import net.coobird.gui.simpleimageviewer4j.util.CacheStats;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A cache of scaled renditions of images, which can be shared by several
+ * viewers so that renditions of the same images are computed and kept
+ * only once, within a single memory budget.
+ * <p>
+ * Unless a cache is specified, each viewer uses a cache of its own, which
+ * is cleared when the viewer is closed. A cache shared between viewers is
+ * kept as long as it is referenced, so that viewers opened later on the
+ * same images can reuse renditions.
+ * <p>
+ * Renditions are cached for the {@link BufferedImage} instances which are
+ * displayed, and are released once those images are no longer reachable.
+ * Instances are thread-safe.
+ */
+public final class ImageCache {
+	/**
+	 * Default memory budget, in bytes.
+	 */
+	private static final long DEFAULT_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+
+	private static final AtomicInteger CACHE_COUNT = new AtomicInteger();
+
+	private static final ImageCache SHARED = new ImageCache();
+
+	final Cache<ScaleKey, BufferedImage> cache;
+
+	private final CacheMonitor monitor;
+	private final String name = "scaled-images-" + CACHE_COUNT.incrementAndGet();
+
+	/**
+	 * Number of displayed panels which want the MBean of this cache to be
+	 * registered.
+	 */
+	private int monitorUsers;
+
+	/**
+	 * Creates a cache whose budget is an eighth of the maximum heap size.
+	 */
+	public ImageCache() {
+		this(DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates a cache with the given budget.
+	 *
+	 * @param maximumBytes Memory budget for renditions, in bytes.
+	 */
+	public ImageCache(long maximumBytes) {
+		if (maximumBytes < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative.");
+		}
+		this.cache = new Cache<ScaleKey, BufferedImage>(maximumBytes, ImageWeigher.INSTANCE);
+		this.monitor = new CacheMonitor(cache);
+	}
+
+	/**
+	 * Returns the cache shared by the whole process, whose budget is an
+	 * eighth of the maximum heap size.
+	 *
+	 * @return The process-wide cache.
+	 */
+	public static ImageCache getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * Returns the memory budget of this cache.
+	 *
+	 * @return Memory budget, in bytes.
+	 */
+	public long getMaximumBytes() {
+		return cache.maximumWeight();
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 *
+	 * @return Statistics of this cache.
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Registers the MBean of this cache for one more panel, if it is the
+	 * first one. A cache shared by several panels has a single MBean.
+	 */
+	synchronized void acquireMonitor() {
+		if (monitorUsers == 0) {
+			monitor.register(name);
+		}
+		monitorUsers++;
+	}
+
+	/**
+	 * Unregisters the MBean of this cache once the last panel which
+	 * acquired it no longer needs it.
+	 */
+	synchronized void releaseMonitor() {
+		if (monitorUsers == 0) {
+			throw new IllegalStateException("Monitor was not acquired.");
+		}
+		monitorUsers--;
+		if (monitorUsers == 0) {
+			monitor.unregister();
+		}
+	}
+
+	/**
+	 * Removes all renditions from this cache.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+
+/**
+ * Produces copies of images in the format of the screen, which Java2D can
+ * draw with its accelerated loops rather than converting pixels on every
+ * repaint. Such copies are also cached in video memory by Java2D.
+ * <p>
+ * Copies are stored in the given cache as the rendition of the original
+ * image at a magnification of {@code 1.0}, so that they are accounted for
+ * along with the scaled renditions.
+ */
+final class ImageConverter {
+	private static final double FULL_SCALE = 1.0;
+
+	/**
+	 * Copies taking more than this fraction of the cache are not made, so
+	 * that a single large image does not evict every other rendition.
+	 */
+	private static final int MAXIMUM_SHARE = 4;
+
+	private final Cache<ScaleKey, BufferedImage> cache;
+	private final GraphicsConfiguration configuration;
+	private final int opaqueType;
+	private final int translucentType;
+
+	/**
+	 * @param cache Cache which copies are stored into.
+	 */
+	ImageConverter(Cache<ScaleKey, BufferedImage> cache) {
+		this(cache, GraphicsEnvironment.isHeadless()
+				? null
+				: GraphicsEnvironment.getLocalGraphicsEnvironment()
+						.getDefaultScreenDevice()
+						.getDefaultConfiguration()
+		);
+	}
+
+	/**
+	 * @param cache         Cache which copies are stored into.
+	 * @param configuration Configuration whose format copies are made in,
+	 *                      or {@code null} to never convert images.
+	 */
+	ImageConverter(Cache<ScaleKey, BufferedImage> cache, GraphicsConfiguration configuration) {
+		this.cache = cache;
+		this.configuration = configuration;
+		ScaleKey.register(cache);
+
+		if (configuration == null) {
+			opaqueType = BufferedImage.TYPE_CUSTOM;
+			translucentType = BufferedImage.TYPE_CUSTOM;
+
+		} else {
+			opaqueType = configuration.createCompatibleImage(1, 1, Transparency.OPAQUE).getType();
+			translucentType = configuration.createCompatibleImage(1, 1, Transparency.TRANSLUCENT).getType();
+		}
+	}
+
+	/**
+	 * Returns whether the image can be drawn without conversion.
+	 */
+	boolean isCompatible(BufferedImage image) {
+		if (configuration == null) {
+			return true;
+		}
+		int type = image.getType();
+		return type != BufferedImage.TYPE_CUSTOM && (type == opaqueType || type == translucentType);
+	}
+
+	/**
+	 * Returns whether the image is drawn without being copied, either because
+	 * it needs no conversion, or because its copy would take too much of the
+	 * cache to be kept.
+	 */
+	boolean isDrawnAsIs(BufferedImage image) {
+		if (isCompatible(image)) {
+			return true;
+		}
+		long maximumWeight = cache.maximumWeight();
+		if (maximumWeight < 0) {
+			return false;
+		}
+		// Compatible images store each pixel in an int.
+		long weight = (long) image.getWidth() * image.getHeight() * 4;
+		return weight > maximumWeight / MAXIMUM_SHARE;
+	}
+
+	/**
+	 * Returns the copy of the image if it has already been made, the image
+	 * itself if it is drawn as it is, or {@code null}.
+	 */
+	BufferedImage getIfConverted(BufferedImage image) {
+		if (isDrawnAsIs(image)) {
+			return image;
+		}
+		return cache.getIfPresent(ScaleKey.of(image, FULL_SCALE));
+	}
+
+	/**
+	 * Returns a copy of the image in the format of the screen, or the image
+	 * itself if it is drawn as it is. May be called from any thread.
+	 */
+	BufferedImage convert(final BufferedImage image) {
+		if (isDrawnAsIs(image)) {
+			return image;
+		}
+
+		try {
+			return cache.computeIfAbsent(
+					ScaleKey.of(image, FULL_SCALE),
+					new Callable<BufferedImage>() {
+						@Override
+						public BufferedImage call() {
+							return copy(image);
+						}
+					}
+			);
+
+		} catch (Exception e) {
+			// The original image can still be drawn, only more slowly.
+			return image;
+
+		} catch (OutOfMemoryError e) {
+			return image;
+		}
+	}
+
+	private BufferedImage copy(BufferedImage image) {
+		// Images with an alpha channel which is not used can be drawn with
+		// the faster opaque loops.
+		int transparency = OpacityAnalyzer.isOpaque(image)
+				? Transparency.OPAQUE
+				: Transparency.TRANSLUCENT;
+
+		BufferedImage copy = configuration.createCompatibleImage(
+				image.getWidth(), image.getHeight(), transparency
+		);
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+
+		return copy;
+	}
+}
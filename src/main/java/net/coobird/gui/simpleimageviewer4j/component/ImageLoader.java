@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.LoadingImageSource;
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+
+import javax.swing.SwingUtilities;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Obtains images from an {@link ImageSource} for display.
+ * <p>
+ * Images are obtained on a background thread, as sources may produce them
+ * on demand, and from a {@link LoadingImageSource} at reduced resolution
+ * when displayed zoomed out. Only images from a {@link ListImageSource},
+ * which are known to be in memory, are obtained immediately.
+ * <p>
+ * Only the most recent request is delivered. All methods, except for
+ * {@link #fetch(int, double)}, must be called from the EDT.
+ */
+final class ImageLoader {
+	private static final int THREADS = 2;
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("loader")
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	interface Callback {
+		void loaded(int index, LoadedImage image);
+
+		void failed(int index, IOException e);
+	}
+
+	private final ImageSource images;
+	private final Callback callback;
+
+	/**
+	 * Converts images to the format of the screen, or {@code null} to keep
+	 * original images.
+	 */
+	private volatile ImageConverter converter;
+
+	private Future<?> pending;
+	private int generation;
+
+	ImageLoader(ImageSource images, Callback callback) {
+		this.images = images;
+		this.callback = callback;
+	}
+
+	/**
+	 * Returns the subsampling factor to decode an image with, for it to be
+	 * displayed at the given magnification. Images are decoded at no less
+	 * than twice the displayed size, leaving the final reduction to
+	 * high-quality resizing.
+	 */
+	static int subsamplingFor(double magnification) {
+		int subsampling = 1;
+		while (subsampling * 4 <= 1.0 / magnification) {
+			subsampling *= 2;
+		}
+		return subsampling;
+	}
+
+	/**
+	 * Number of pixels above which images are decoded a region at a time,
+	 * if the source supports it, rather than all at once.
+	 */
+	private static final long REGION_THRESHOLD = 4096L * 4096L;
+
+	/**
+	 * Size of the longer side of the overview of an image which is decoded
+	 * a region at a time.
+	 */
+	private static final int OVERVIEW_SIZE = 2048;
+
+	/**
+	 * Returns the subsampling factor to decode the overview of an image of
+	 * the given size with.
+	 */
+	static int overviewSubsamplingFor(int width, int height) {
+		int size = Math.max(width, height);
+		int subsampling = 1;
+		while (size / subsampling > OVERVIEW_SIZE) {
+			subsampling *= 2;
+		}
+		return subsampling;
+	}
+
+	/**
+	 * Returns the dimensions of the full image at the given position. Only
+	 * sources which do not keep images in memory may avoid decoding it.
+	 * May be called from any thread.
+	 */
+	static Dimension getDimension(ImageSource images, int index) throws IOException {
+		if (images instanceof LoadingImageSource) {
+			return ((LoadingImageSource) images).getDimension(index);
+		}
+
+		BufferedImage image = images.get(index);
+		if (image == null) {
+			throw new IOException("No image was provided for index " + index);
+		}
+		return new Dimension(image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Obtains the image at the given position, reduced for display at the
+	 * given magnification if the source supports it. If allowed, very large
+	 * images are only obtained as an overview, when the source can provide
+	 * the rest a region at a time. May be called from any thread.
+	 */
+	static LoadedImage fetchOriginal(
+			ImageSource images, int index, double magnification, boolean overviewAllowed
+	) throws IOException {
+		if (images instanceof LoadingImageSource) {
+			LoadingImageSource source = (LoadingImageSource) images;
+			Dimension dimension = source.getDimension(index);
+			if (overviewAllowed && source.isRegionSupported()
+					&& (long) dimension.width * dimension.height > REGION_THRESHOLD) {
+				int subsampling = overviewSubsamplingFor(dimension.width, dimension.height);
+				return new LoadedImage(source.get(index, subsampling), dimension.width, dimension.height, true);
+			}
+			int subsampling = subsamplingFor(magnification);
+			return new LoadedImage(source.get(index, subsampling), dimension.width, dimension.height);
+		}
+
+		BufferedImage image = images.get(index);
+		if (image == null) {
+			throw new IOException("No image was provided for index " + index);
+		}
+		return new LoadedImage(image, image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Obtains the image at the given position, reduced for display at the
+	 * given magnification if the source supports it, and converted to the
+	 * format of the screen unless original images are kept.
+	 * May be called from any thread.
+	 */
+	LoadedImage fetch(int index, double magnification) throws IOException {
+		LoadedImage image = fetchOriginal(images, index, magnification, true).analyze();
+
+		// Overviews are not converted, as regions drawn over them would not
+		// match their format anyway.
+		ImageConverter converter = this.converter;
+		if (converter == null || image.regionDecoded) {
+			return image;
+		}
+		return image.withImage(converter.convert(image.image));
+	}
+
+	/**
+	 * Sets the converter to convert images with, or {@code null} to keep
+	 * original images. Applies to images loaded from now on.
+	 */
+	void setConverter(ImageConverter converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * Whether images are obtained in the background, in which case the
+	 * callback is called later, rather than from within {@link #load}.
+	 */
+	boolean isAsynchronous() {
+		return !(images instanceof ListImageSource);
+	}
+
+	/**
+	 * Obtains the image at the given position for display at the given
+	 * magnification, and passes it to the callback on the EDT. Any previous
+	 * request is cancelled.
+	 */
+	void load(final int index, final double magnification) {
+		cancel();
+
+		if (!isAsynchronous()) {
+			loadSynchronously(index, magnification);
+			return;
+		}
+
+		final int requestGeneration = generation;
+		pending = EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					deliver(requestGeneration, index, fetch(index, magnification));
+
+				} catch (IOException e) {
+					deliverFailure(requestGeneration, index, e);
+
+				} catch (RuntimeException e) {
+					deliverFailure(requestGeneration, index, new IOException("Could not load image at index " + index, e));
+
+				} catch (OutOfMemoryError e) {
+					deliverFailure(requestGeneration, index, new IOException("Not enough memory to load image at index " + index, e));
+				}
+			}
+		});
+	}
+
+	private void loadSynchronously(final int index, double magnification) {
+		final LoadedImage image;
+		try {
+			image = fetchOriginal(images, index, magnification, true);
+
+		} catch (IOException e) {
+			callback.failed(index, e);
+			return;
+		}
+
+		final ImageConverter converter = this.converter;
+		BufferedImage converted = converter != null ? converter.getIfConverted(image.image) : image.image;
+		if (converted != null) {
+			LoadedImage shown = image.withImage(converted);
+			callback.loaded(index, shown);
+			if (shown.analyzed) {
+				return;
+			}
+
+		} else {
+			// Show the original image until its copy is ready.
+			callback.loaded(index, image);
+		}
+
+		// Examining the pixels of large images takes a while, so it is done
+		// in the background along with the conversion. Until then, the image
+		// is drawn as translucent.
+		final int requestGeneration = generation;
+		pending = EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				LoadedImage analyzed;
+				try {
+					analyzed = image.analyze();
+					if (converter != null) {
+						analyzed = analyzed.withImage(converter.convert(analyzed.image));
+					}
+
+				} catch (RuntimeException e) {
+					// Keep showing the image as it is.
+					analyzed = null;
+
+				} catch (OutOfMemoryError e) {
+					analyzed = null;
+				}
+				deliver(requestGeneration, index, analyzed);
+			}
+		});
+	}
+
+	private void deliver(final int requestGeneration, final int index, final LoadedImage image) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (requestGeneration == generation) {
+					pending = null;
+					if (image != null) {
+						callback.loaded(index, image);
+					}
+				}
+			}
+		});
+	}
+
+	private void deliverFailure(final int requestGeneration, final int index, final IOException e) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (requestGeneration == generation) {
+					pending = null;
+					callback.failed(index, e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Cancels the outstanding request, if any.
+	 */
+	void cancel() {
+		generation++;
+		if (pending != null) {
+			pending.cancel(false);
+			EXECUTOR.purge();
+			pending = null;
+		}
+	}
+}
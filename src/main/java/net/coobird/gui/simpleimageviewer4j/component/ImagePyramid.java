@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.thumbnailator.Thumbnails;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+
+/**
+ * Produces downscaled renditions of images through a mipmap pyramid.
+ * <p>
+ * Levels of the pyramid are at 1/2, 1/4, 1/8 ... of the original size,
+ * each derived from the level above it. Any other magnification is
+ * resized from the nearest level above it, so that only the first step
+ * down from a large image touches all of its pixels.
+ * <p>
+ * Levels are stored in the given cache, keyed by the original image and
+ * scale. Renditions at other magnifications are not, since under continuous
+ * zoom there is no limit to how many different ones may be requested.
+ */
+final class ImagePyramid {
+	private final Cache<ScaleKey, BufferedImage> cache;
+
+	ImagePyramid(Cache<ScaleKey, BufferedImage> cache) {
+		this.cache = cache;
+		ScaleKey.register(cache);
+	}
+
+	/**
+	 * Returns the scale of the smallest pyramid level which is not smaller
+	 * than the given magnification.
+	 */
+	static double levelFor(double magnification) {
+		double level = 1.0;
+		while (level / 2 >= magnification) {
+			level /= 2;
+		}
+		return level;
+	}
+
+	/**
+	 * Returns the size of a dimension of an image at the given scale.
+	 */
+	static int scaledSize(int size, double scale) {
+		return Math.max(1, (int) Math.round(size * scale));
+	}
+
+	private static BufferedImage resize(BufferedImage image, int width, int height) throws Exception {
+		return Thumbnails.of(image)
+				.size(width, height)
+				.asBufferedImage();
+	}
+
+	/**
+	 * Returns the pyramid level at the given scale, computing it and the
+	 * levels above it if necessary.
+	 *
+	 * @param image Original image.
+	 * @param scale Scale of the level, which must be {@code 1.0} or a
+	 *              negative power of two.
+	 */
+	BufferedImage level(final BufferedImage image, final double scale) throws Exception {
+		if (scale >= 1.0) {
+			return image;
+		}
+
+		return cache.computeIfAbsent(
+				ScaleKey.of(image, scale),
+				new Callable<BufferedImage>() {
+					@Override
+					public BufferedImage call() throws Exception {
+						BufferedImage parent = level(image, scale * 2);
+						return resize(
+								parent,
+								scaledSize(image.getWidth(), scale),
+								scaledSize(image.getHeight(), scale)
+						);
+					}
+				}
+		);
+	}
+
+	/**
+	 * Returns the image downscaled to the given magnification. Only
+	 * pyramid levels are cached.
+	 *
+	 * @param image         Original image.
+	 * @param magnification Magnification, which must be less than {@code 1.0}.
+	 * @param width         Width of the rendition.
+	 * @param height        Height of the rendition.
+	 */
+	BufferedImage scale(
+			final BufferedImage image,
+			double magnification,
+			final int width,
+			final int height
+	) throws Exception {
+		final double level = levelFor(magnification);
+		if (level == magnification) {
+			return level(image, level);
+		}
+
+		return resize(level(image, level), width, height);
+	}
+
+	/**
+	 * Computes all levels down to the one needed for the given magnification.
+	 * Levels which are already cached are not computed again.
+	 */
+	void build(BufferedImage image, double minimumMagnification) throws Exception {
+		level(image, levelFor(minimumMagnification));
+	}
+}
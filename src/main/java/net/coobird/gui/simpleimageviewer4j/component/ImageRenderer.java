@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders images the way they are displayed by the viewer, without
+ * displaying them. Usable in a headless environment, for example to
+ * generate previews or to test rendering.
+ * <p>
+ * Images are scaled in the same way as in the viewer, and drawn over the
+ * same checkerboard background. Several images are rendered in parallel.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class ImageRenderer {
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("render")
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final ImageSource images;
+	private final ImagePyramid pyramid;
+	private final Checkerboard checkerboard = new Checkerboard();
+
+	/**
+	 * Creates a renderer for images from the specified source.
+	 *
+	 * @param images The source of images to render.
+	 */
+	public ImageRenderer(ImageSource images) {
+		this(images, new ImageCache());
+	}
+
+	/**
+	 * Creates a renderer for images from the specified source, which keeps
+	 * scaled renditions in the given cache, which may be shared with
+	 * viewers or other renderers.
+	 *
+	 * @param images The source of images to render.
+	 * @param cache  The cache for scaled renditions.
+	 */
+	public ImageRenderer(ImageSource images, ImageCache cache) {
+		if (images == null) {
+			throw new NullPointerException("Must specify images.");
+		}
+		if (cache == null) {
+			throw new NullPointerException("Must specify a cache.");
+		}
+		this.images = images;
+		this.pyramid = new ImagePyramid(cache.cache);
+	}
+
+	/**
+	 * Returns the number of images which can be rendered.
+	 *
+	 * @return The number of images.
+	 */
+	public int size() {
+		return images.size();
+	}
+
+	private static void validateMagnification(double magnification) {
+		if (!(magnification > 0) || Double.isInfinite(magnification)) {
+			throw new IllegalArgumentException("Magnification must be a positive, finite value.");
+		}
+	}
+
+	private static void validateSize(int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Width and height must be positive.");
+		}
+	}
+
+	/**
+	 * Renders the image at the given position, at the given magnification.
+	 * The rendered image is the size of the magnified image.
+	 *
+	 * @param index         Position of the image in the source.
+	 * @param magnification Magnification to render the image at.
+	 * @return The rendered image.
+	 * @throws IOException If the image could not be obtained.
+	 */
+	public BufferedImage render(int index, double magnification) throws IOException {
+		validateMagnification(magnification);
+
+		Dimension dimension = ImageLoader.getDimension(images, index);
+		return render(
+				index, magnification,
+				ImagePyramid.scaledSize(dimension.width, magnification),
+				ImagePyramid.scaledSize(dimension.height, magnification)
+		);
+	}
+
+	/**
+	 * Renders the image at the given position, at the given magnification,
+	 * as it would be shown in a viewer of the given size. The image is
+	 * centered, and cropped if it is larger than the viewer.
+	 *
+	 * @param index         Position of the image in the source.
+	 * @param magnification Magnification to render the image at.
+	 * @param width         Width of the viewer.
+	 * @param height        Height of the viewer.
+	 * @return The rendered image.
+	 * @throws IOException If the image could not be obtained.
+	 */
+	public BufferedImage render(int index, double magnification, int width, int height) throws IOException {
+		validateMagnification(magnification);
+		validateSize(width, height);
+
+		// Regions are not decoded separately, as the whole image is drawn.
+		LoadedImage image = ImageLoader.fetchOriginal(images, index, magnification, false).analyze();
+
+		BufferedImage view = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = view.createGraphics();
+		checkerboard.fill(g, null, 0, 0, width, height);
+
+		int magnifiedWidth = ImagePyramid.scaledSize(image.width, magnification);
+		int magnifiedHeight = ImagePyramid.scaledSize(image.height, magnification);
+		int x = (width / 2) - (magnifiedWidth / 2);
+		int y = (height / 2) - (magnifiedHeight / 2);
+
+		if (image.opaque) {
+			g.setComposite(AlphaComposite.Src);
+		}
+		draw(g, image, magnification, x, y, magnifiedWidth, magnifiedHeight);
+		g.dispose();
+
+		return view;
+	}
+
+	/**
+	 * Draws the image in the same way as the viewer does once zooming has
+	 * settled.
+	 */
+	private void draw(
+			Graphics2D g, LoadedImage loaded, double magnification,
+			int x, int y, int width, int height
+	) throws IOException {
+		BufferedImage image = loaded.image;
+		double relativeMagnification = magnification / loaded.scale();
+
+		if (width == image.getWidth() && height == image.getHeight()) {
+			g.drawImage(image, x, y, width, height, null);
+
+		} else if (relativeMagnification < 1.0) {
+			BufferedImage scaled;
+			try {
+				scaled = pyramid.scale(image, relativeMagnification, width, height);
+
+			} catch (IOException e) {
+				throw e;
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IOException("Could not scale image.", e);
+			}
+			g.drawImage(scaled, x, y, width, height, null);
+
+		} else {
+			g.setRenderingHint(
+					RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+			);
+			g.drawImage(image, x, y, width, height, null);
+		}
+	}
+
+	/**
+	 * Renders all images at the given magnification, in parallel.
+	 *
+	 * @param magnification Magnification to render the images at.
+	 * @return The rendered images, in the order of the source.
+	 * @throws IOException If any of the images could not be obtained.
+	 * @see #render(int, double)
+	 */
+	public List<BufferedImage> renderAll(final double magnification) throws IOException {
+		validateMagnification(magnification);
+
+		List<Callable<BufferedImage>> tasks = new ArrayList<Callable<BufferedImage>>();
+		for (int i = 0; i < images.size(); i++) {
+			final int index = i;
+			tasks.add(new Callable<BufferedImage>() {
+				@Override
+				public BufferedImage call() throws IOException {
+					return render(index, magnification);
+				}
+			});
+		}
+		return invokeAll(tasks);
+	}
+
+	/**
+	 * Renders all images into a single image, in a grid of cells of the
+	 * given size. Each image is reduced to fit its cell, but not enlarged,
+	 * and is centered within it. Images are rendered in parallel.
+	 *
+	 * @param columns    Number of cells in each row.
+	 * @param cellWidth  Width of each cell.
+	 * @param cellHeight Height of each cell.
+	 * @return The contact sheet.
+	 * @throws IOException If any of the images could not be obtained.
+	 */
+	public BufferedImage renderContactSheet(int columns, final int cellWidth, final int cellHeight) throws IOException {
+		if (columns <= 0) {
+			throw new IllegalArgumentException("Number of columns must be positive.");
+		}
+		validateSize(cellWidth, cellHeight);
+
+		List<Callable<BufferedImage>> tasks = new ArrayList<Callable<BufferedImage>>();
+		for (int i = 0; i < images.size(); i++) {
+			final int index = i;
+			tasks.add(new Callable<BufferedImage>() {
+				@Override
+				public BufferedImage call() throws IOException {
+					Dimension dimension = ImageLoader.getDimension(images, index);
+					double magnification = Math.min(1.0, Math.min(
+							(double) cellWidth / dimension.width,
+							(double) cellHeight / dimension.height
+					));
+					return render(index, magnification, cellWidth, cellHeight);
+				}
+			});
+		}
+		List<BufferedImage> cells = invokeAll(tasks);
+
+		int rows = Math.max(1, (cells.size() + columns - 1) / columns);
+		BufferedImage sheet = new BufferedImage(
+				columns * cellWidth, rows * cellHeight, BufferedImage.TYPE_INT_RGB
+		);
+		Graphics2D g = sheet.createGraphics();
+		checkerboard.fill(g, null, 0, 0, sheet.getWidth(), sheet.getHeight());
+		for (int i = 0; i < cells.size(); i++) {
+			g.drawImage(cells.get(i), (i % columns) * cellWidth, (i / columns) * cellHeight, null);
+		}
+		g.dispose();
+
+		return sheet;
+	}
+
+	/**
+	 * Runs the given tasks in parallel, and returns their results in order.
+	 * Remaining tasks are cancelled once one of them fails.
+	 */
+	private static List<BufferedImage> invokeAll(List<Callable<BufferedImage>> tasks) throws IOException {
+		List<Future<BufferedImage>> futures = new ArrayList<Future<BufferedImage>>();
+		for (Callable<BufferedImage> task : tasks) {
+			futures.add(EXECUTOR.submit(task));
+		}
+
+		List<BufferedImage> results = new ArrayList<BufferedImage>();
+		try {
+			for (Future<BufferedImage> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while rendering images.");
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException("Could not render image.", cause);
+
+		} finally {
+			for (Future<BufferedImage> future : futures) {
+				future.cancel(false);
+			}
+			EXECUTOR.purge();
+		}
+	}
+}
@@ -26,6 +26,11 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 
 public final class KeyNavigation extends KeyAdapter {
+	/**
+	 * Number of images to move by with the Page Up and Page Down keys.
+	 */
+	private static final int PAGE_SIZE = 10;
+
 	private final DisplayPanel dp;
 
 	public KeyNavigation(DisplayPanel dp) {
@@ -33,9 +38,10 @@ public final class KeyNavigation extends KeyAdapter {
 	}
 
 	@Override
-	public void keyReleased(KeyEvent e) {
+	public void keyPressed(KeyEvent e) {
+		// Navigation repeats while a key is held down. Bursts of repeated
+		// navigation are coalesced by the panel.
 		int key = e.getKeyCode();
-		char c = e.getKeyChar();
 
 		if (key == KeyEvent.VK_LEFT) {
 			dp.showPrevious();
@@ -43,11 +49,32 @@ public final class KeyNavigation extends KeyAdapter {
 		} else if (key == KeyEvent.VK_RIGHT) {
 			dp.showNext();
 
-		} else if (c == '+') {
+		} else if (key == KeyEvent.VK_PAGE_UP) {
+			dp.show(Math.max(0, dp.current() - PAGE_SIZE));
+
+		} else if (key == KeyEvent.VK_PAGE_DOWN) {
+			dp.show(Math.min(dp.count() - 1, dp.current() + PAGE_SIZE));
+
+		} else if (key == KeyEvent.VK_HOME) {
+			dp.showFirst();
+
+		} else if (key == KeyEvent.VK_END) {
+			dp.showLast();
+		}
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+		char c = e.getKeyChar();
+
+		if (c == '+') {
 			dp.getZoomModel().zoomIn();
 
 		} else if (c == '-') {
 			dp.getZoomModel().zoomOut();
+
+		} else if (c == 'f') {
+			dp.fitToWindow();
 		}
 	}
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * An image obtained from an image source, along with the dimensions of the
+ * full image. The two differ when the image was decoded at reduced
+ * resolution.
+ */
+final class LoadedImage {
+	final BufferedImage image;
+	final int width;
+	final int height;
+
+	/**
+	 * Whether the full image is too large to be decoded at once, in which
+	 * case {@link #image} is only an overview, and more detail must be
+	 * obtained a region at a time.
+	 */
+	final boolean regionDecoded;
+
+	/**
+	 * Whether every pixel of the full image is known to be fully opaque.
+	 * Until {@link #analyze()} is called, pixels are not examined, and
+	 * images with an alpha channel are taken to be translucent.
+	 */
+	final boolean opaque;
+
+	/**
+	 * Whether {@link #opaque} is final, rather than assumed until the pixels
+	 * are examined.
+	 */
+	final boolean analyzed;
+
+	LoadedImage(BufferedImage image, int width, int height) {
+		this(image, width, height, false);
+	}
+
+	LoadedImage(BufferedImage image, int width, int height, boolean regionDecoded) {
+		this.image = image;
+		this.width = width;
+		this.height = height;
+		this.regionDecoded = regionDecoded;
+
+		if (isAnalyzable()) {
+			Boolean known = OpacityAnalyzer.getIfKnown(image);
+			this.opaque = known != null && known;
+			this.analyzed = known != null;
+
+		} else {
+			// Pixels skipped by reduced resolution decoding may be
+			// transparent, so only the color model can be trusted.
+			this.opaque = image.getTransparency() == Transparency.OPAQUE;
+			this.analyzed = true;
+		}
+	}
+
+	private LoadedImage(BufferedImage image, LoadedImage loaded, boolean opaque) {
+		this.image = image;
+		this.width = loaded.width;
+		this.height = loaded.height;
+		this.regionDecoded = loaded.regionDecoded;
+		this.opaque = opaque;
+		this.analyzed = true;
+	}
+
+	private boolean isAnalyzable() {
+		return image.getWidth() == width && !regionDecoded;
+	}
+
+	/**
+	 * Returns the same image, with its pixels examined to determine whether
+	 * it is opaque. This may take a while for large images, so it should
+	 * not be called from the EDT.
+	 */
+	LoadedImage analyze() {
+		if (analyzed) {
+			return this;
+		}
+		return new LoadedImage(image, this, OpacityAnalyzer.isOpaque(image));
+	}
+
+	/**
+	 * Returns the same image in a different format.
+	 */
+	LoadedImage withImage(BufferedImage image) {
+		if (image == this.image) {
+			return this;
+		}
+		if (analyzed) {
+			// Converting the format does not change the opacity of pixels.
+			return new LoadedImage(image, this, opaque);
+		}
+		return new LoadedImage(image, width, height, regionDecoded);
+	}
+
+	/**
+	 * Returns the ratio of the size of the image to the size of the full
+	 * image, which is {@code 1.0} unless the image has reduced resolution.
+	 */
+	double scale() {
+		return (double) image.getWidth() / width;
+	}
+}
@@ -25,7 +25,6 @@ package net.coobird.gui.simpleimageviewer4j.component;
 import net.coobird.gui.simpleimageviewer4j.model.Zoom;
 import net.coobird.gui.simpleimageviewer4j.model.ZoomChangeListener;
 
-import javax.swing.ComboBoxModel;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
@@ -33,7 +32,11 @@ import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
+import javax.swing.JSlider;
 import javax.swing.SwingConstants;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Font;
 import java.awt.GridLayout;
@@ -52,8 +55,15 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 	private final ZoomLevelComboBox zoomLevelList;
 
 	private final JLabel indicator;
+	private final JSlider slider;
 	private final DisplayPanel dp;
 
+	/**
+	 * Whether the slider is being moved to reflect the current image,
+	 * rather than by the user.
+	 */
+	private boolean updatingSlider;
+
 	private abstract static class ZoomButton extends JButton implements ZoomChangeListener {
 		protected final Zoom zoomModel;
 		private ZoomButton(Zoom zoomModel, String title) {
@@ -63,7 +73,21 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 	}
 	
 	private static class ZoomLevelComboBox extends JComboBox implements ZoomChangeListener {
-		private static ComboBoxModel createModel(Zoom zoomModel) {
+		private final DefaultComboBoxModel model;
+
+		/**
+		 * Magnification which is not one of the zoom levels, shown among
+		 * them while it is the current magnification.
+		 */
+		private Double customMagnification;
+
+		/**
+		 * Whether the selection is being changed to reflect the zoom model,
+		 * rather than by the user.
+		 */
+		private boolean updating;
+
+		private static DefaultComboBoxModel createModel(Zoom zoomModel) {
 			double[] zoomLevels = zoomModel.getZoomLevels();
 			Double[] tmp = new Double[zoomLevels.length];
 			for (int i = 0; i < zoomLevels.length; i++) {
@@ -73,8 +97,13 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 		}
 
 		private ZoomLevelComboBox(final Zoom zoomModel) {
-			super(createModel(zoomModel));
-			setSelectedItem(zoomModel.getMagnification());
+			this(zoomModel, createModel(zoomModel));
+		}
+
+		private ZoomLevelComboBox(final Zoom zoomModel, DefaultComboBoxModel model) {
+			super(model);
+			this.model = model;
+			showMagnification(zoomModel.getMagnification());
 
 			this.setRenderer(new DefaultListCellRenderer() {
 				@Override
@@ -89,17 +118,40 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 			this.addItemListener(new ItemListener() {
 				@Override
 				public void itemStateChanged(ItemEvent itemEvent) {
-					double selectedMagnification = (Double) itemEvent.getItem();
-					zoomModel.setMagnification(selectedMagnification);
+					if (!updating && itemEvent.getStateChange() == ItemEvent.SELECTED) {
+						zoomModel.zoomTo((Double) itemEvent.getItem());
+					}
 				}
 			});
 		}
 
+		private void showMagnification(double magnification) {
+			updating = true;
+			try {
+				if (customMagnification != null && customMagnification != magnification) {
+					model.removeElement(customMagnification);
+					customMagnification = null;
+				}
+				if (model.getIndexOf(magnification) == -1) {
+					int i = 0;
+					while (i < model.getSize() && (Double) model.getElementAt(i) < magnification) {
+						i++;
+					}
+					customMagnification = magnification;
+					model.insertElementAt(customMagnification, i);
+				}
+				setSelectedItem(magnification);
+
+			} finally {
+				updating = false;
+			}
+		}
+
 		@Override
 		public void zoomChanged(double magnification) {
 			// Find out if component had focus. If not, unfocus after selecting item.
 			boolean hasFocus = hasFocus();
-			setSelectedItem(magnification);
+			showMagnification(magnification);
 			if (!hasFocus) {
 				transferFocus();
 			}
@@ -108,7 +160,7 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 
 	public NavigationPanel(final DisplayPanel dp) {
 		this.dp = dp;
-		this.setLayout(new GridLayout(1, 0));
+		this.setLayout(new BorderLayout());
 
 		indicator = new JLabel();
 		indicator.setFont(new Font("Monospaced", Font.PLAIN, 14));
@@ -171,6 +223,19 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 		zoomOutButton.addKeyListener(kn);
 		zoomModel.addListener(zoomOutButton);
 
+		// Not focusable, so that keys keep navigating rather than moving
+		// the slider.
+		slider = new JSlider(0, dp.count() - 1, dp.current());
+		slider.setFocusable(false);
+		slider.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				if (!updatingSlider) {
+					dp.show(slider.getValue());
+				}
+			}
+		});
+
 		JPanel leftPanel = new JPanel(new GridLayout());
 		leftPanel.add(prevButton);
 		leftPanel.add(zoomInButton);
@@ -183,9 +248,15 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 		centerPanel.add(indicator);
 		centerPanel.add(zoomLevelList);
 
-		this.add(leftPanel);
-		this.add(centerPanel);
-		this.add(rightPanel);
+		JPanel buttonPanel = new JPanel(new GridLayout(1, 0));
+		buttonPanel.add(leftPanel);
+		buttonPanel.add(centerPanel);
+		buttonPanel.add(rightPanel);
+
+		this.add(buttonPanel, BorderLayout.CENTER);
+		if (dp.count() > 1) {
+			this.add(slider, BorderLayout.NORTH);
+		}
 
 		updateButtonStates();
 		updateIndicator();
@@ -220,8 +291,18 @@ public final class NavigationPanel extends JPanel implements DisplayChangeListen
 		);
 	}
 
+	private void updateSlider() {
+		updatingSlider = true;
+		try {
+			slider.setValue(dp.current());
+		} finally {
+			updatingSlider = false;
+		}
+	}
+
 	public void imageChanged() {
 		updateButtonStates();
 		updateIndicator();
+		updateSlider();
 	}
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Determines whether images are opaque, including images with an alpha
+ * channel whose pixels are all fully opaque.
+ * <p>
+ * The pixels of an image are only examined once, and large images are
+ * examined in strips in parallel. Images are assumed not to change while
+ * they are being displayed.
+ */
+final class OpacityAnalyzer {
+	/**
+	 * Number of pixels above which images are examined in parallel.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1024L * 1024L;
+
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("opacity")
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private static final Map<BufferedImage, Boolean> RESULTS =
+			Collections.synchronizedMap(new WeakHashMap<BufferedImage, Boolean>());
+
+	private OpacityAnalyzer() {
+	}
+
+	/**
+	 * Returns whether every pixel of the image is fully opaque.
+	 * May be called from any thread.
+	 */
+	static boolean isOpaque(BufferedImage image) {
+		if (image.getTransparency() == Transparency.OPAQUE) {
+			return true;
+		}
+
+		Boolean opaque = RESULTS.get(image);
+		if (opaque == null) {
+			opaque = analyze(image);
+			RESULTS.put(image, opaque);
+		}
+		return opaque;
+	}
+
+	/**
+	 * Returns whether every pixel of the image is fully opaque, if that is
+	 * known without examining its pixels, or {@code null} if not. Cheap
+	 * enough to be called from the EDT.
+	 */
+	static Boolean getIfKnown(BufferedImage image) {
+		if (image.getTransparency() == Transparency.OPAQUE) {
+			return Boolean.TRUE;
+		}
+		return RESULTS.get(image);
+	}
+
+	private static boolean analyze(BufferedImage image) {
+		ColorModel colorModel = image.getColorModel();
+		if (colorModel instanceof IndexColorModel) {
+			// Unused colors may be transparent too, but checking the palette
+			// is far cheaper than checking the pixels.
+			IndexColorModel indexColorModel = (IndexColorModel) colorModel;
+			for (int i = 0; i < indexColorModel.getMapSize(); i++) {
+				if (indexColorModel.getAlpha(i) != 255) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		final Raster alpha = image.getAlphaRaster();
+		if (alpha == null) {
+			return false;
+		}
+
+		int alphaBits = colorModel.getComponentSize(colorModel.getNumComponents() - 1);
+		final int opaqueAlpha = (1 << alphaBits) - 1;
+
+		int height = alpha.getHeight();
+		if ((long) alpha.getWidth() * height < PARALLEL_THRESHOLD || THREADS == 1) {
+			return isOpaque(alpha, opaqueAlpha, 0, height, new AtomicBoolean());
+		}
+
+		// Strips are examined in parallel, and all of them give up as soon
+		// as any of them finds a transparent pixel.
+		final AtomicBoolean transparent = new AtomicBoolean();
+		int stripHeight = (height + THREADS - 1) / THREADS;
+		List<Future<Boolean>> strips = new ArrayList<Future<Boolean>>();
+		for (int top = 0; top < height; top += stripHeight) {
+			final int from = top;
+			final int to = Math.min(height, top + stripHeight);
+			strips.add(EXECUTOR.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return isOpaque(alpha, opaqueAlpha, from, to, transparent);
+				}
+			}));
+		}
+
+		try {
+			boolean opaque = true;
+			for (Future<Boolean> strip : strips) {
+				opaque &= strip.get();
+			}
+			return opaque;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+
+		} catch (ExecutionException e) {
+			// Strips only throw unchecked exceptions, which are passed on
+			// as if the pixels had been examined on this thread.
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("This should not happen.", cause);
+		}
+	}
+
+	private static boolean isOpaque(Raster alpha, int opaqueAlpha, int from, int to, AtomicBoolean transparent) {
+		int width = alpha.getWidth();
+		int minX = alpha.getMinX();
+		int minY = alpha.getMinY();
+		int[] row = new int[width];
+
+		for (int y = from; y < to && !transparent.get(); y++) {
+			alpha.getSamples(minX, minY + y, width, 1, 0, row);
+			for (int x = 0; x < width; x++) {
+				if (row[x] != opaqueAlpha) {
+					transparent.set(true);
+					return false;
+				}
+			}
+		}
+		return !transparent.get();
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Key under which a rendition of an image at a pyramid level is cached.
+ * <p>
+ * There is a single key for each image and level, which is compared by
+ * identity, so that looking up a rendition which is already cached does
+ * not allocate. Keys do not refer to their image, so that cached
+ * renditions do not keep the original image reachable.
+ * <p>
+ * Once an image is no longer reachable, the renditions cached under its
+ * keys can never be looked up again, and are removed from the caches
+ * which were registered through {@link #register(Cache)}.
+ */
+final class ScaleKey {
+	/**
+	 * The keys of an image, indexed by level, which are enqueued once the
+	 * image is no longer reachable.
+	 */
+	private static final class ImageKeys extends WeakReference<BufferedImage> {
+		ScaleKey[] keys = new ScaleKey[0];
+
+		ImageKeys(BufferedImage image) {
+			super(image, CLEARED);
+		}
+	}
+
+	private static final ReferenceQueue<BufferedImage> CLEARED = new ReferenceQueue<BufferedImage>();
+	private static final Map<BufferedImage, ImageKeys> KEYS = new WeakHashMap<BufferedImage, ImageKeys>();
+
+	/**
+	 * Keeps the references reachable until they are enqueued, as the map
+	 * drops them along with their image.
+	 */
+	private static final Set<ImageKeys> REFERENCES = new HashSet<ImageKeys>();
+
+	/**
+	 * Caches to remove renditions of unreachable images from, which are
+	 * themselves held weakly.
+	 */
+	private static final Map<Cache<ScaleKey, ?>, Boolean> CACHES = new WeakHashMap<Cache<ScaleKey, ?>, Boolean>();
+
+	private final int level;
+
+	private ScaleKey(int level) {
+		this.level = level;
+	}
+
+	/**
+	 * Returns the key for the rendition of the image at the given scale.
+	 * May be called from any thread.
+	 *
+	 * @param image Original image.
+	 * @param scale Scale of the rendition, which must be {@code 1.0} or a
+	 *              negative power of two.
+	 */
+	static ScaleKey of(BufferedImage image, double scale) {
+		int level = levelOf(scale);
+		synchronized (KEYS) {
+			expungeUnreachable();
+
+			ImageKeys imageKeys = KEYS.get(image);
+			if (imageKeys == null) {
+				imageKeys = new ImageKeys(image);
+				KEYS.put(image, imageKeys);
+				REFERENCES.add(imageKeys);
+			}
+			if (imageKeys.keys.length <= level) {
+				imageKeys.keys = Arrays.copyOf(imageKeys.keys, level + 1);
+			}
+			if (imageKeys.keys[level] == null) {
+				imageKeys.keys[level] = new ScaleKey(level);
+			}
+			return imageKeys.keys[level];
+		}
+	}
+
+	/**
+	 * Registers a cache of renditions, so that renditions of images which
+	 * are no longer reachable are removed from it.
+	 */
+	static void register(Cache<ScaleKey, ?> cache) {
+		synchronized (KEYS) {
+			expungeUnreachable();
+			CACHES.put(cache, Boolean.TRUE);
+		}
+	}
+
+	private static void expungeUnreachable() {
+		Reference<? extends BufferedImage> ref;
+		while ((ref = CLEARED.poll()) != null) {
+			REFERENCES.remove(ref);
+			for (ScaleKey key : ((ImageKeys) ref).keys) {
+				if (key == null) {
+					continue;
+				}
+				for (Cache<ScaleKey, ?> cache : CACHES.keySet()) {
+					cache.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of times the given scale halves the size of an
+	 * image.
+	 */
+	private static int levelOf(double scale) {
+		int exponent = Math.getExponent(scale);
+		if (scale > 1.0 || scale != Math.scalb(1.0, exponent)) {
+			throw new IllegalArgumentException("Scale must be 1.0 or a negative power of two.");
+		}
+		return -exponent;
+	}
+
+	@Override
+	public String toString() {
+		return "ScaleKey{scale=1/" + (1L << level) + "}";
+	}
+}
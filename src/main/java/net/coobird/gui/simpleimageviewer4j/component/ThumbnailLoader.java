@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+import net.coobird.thumbnailator.Thumbnails;
+
+import javax.swing.SwingUtilities;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates thumbnails of images in the background.
+ * <p>
+ * Thumbnails are kept in a cache of their own, so that they neither evict
+ * nor are evicted by renditions of the image being displayed. Requests for
+ * thumbnails which are no longer needed can be cancelled before they are
+ * worked on.
+ * <p>
+ * All methods except {@link #createThumbnail(ImageSource, int, int)} must
+ * be called from the EDT.
+ */
+final class ThumbnailLoader {
+	private static final int THREADS = 2;
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("thumbnails")
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Memory budget for thumbnails, in bytes.
+	 */
+	private static final long CACHE_BUDGET = Runtime.getRuntime().maxMemory() / 32;
+
+	interface Callback {
+		/**
+		 * Called on the EDT when the thumbnail of the image at the given
+		 * position becomes available.
+		 */
+		void thumbnailLoaded(int index);
+	}
+
+	private final ImageSource images;
+	private final int size;
+	private final Callback callback;
+
+	private final Cache<Integer, BufferedImage> cache =
+			new Cache<Integer, BufferedImage>(CACHE_BUDGET, ImageWeigher.INSTANCE);
+	private final Map<Integer, Future<?>> pending = new HashMap<Integer, Future<?>>();
+
+	/**
+	 * Images whose thumbnail could not be created, which are not attempted
+	 * again.
+	 */
+	private final Set<Integer> failed = new HashSet<Integer>();
+
+	/**
+	 * @param images   Source of the images.
+	 * @param size     Size of the longer side of thumbnails.
+	 * @param callback Called when thumbnails become available.
+	 */
+	ThumbnailLoader(ImageSource images, int size, Callback callback) {
+		this.images = images;
+		this.size = size;
+		this.callback = callback;
+	}
+
+	/**
+	 * Creates a thumbnail of the image at the given position, whose longer
+	 * side is at most the given size. Images are not enlarged. May be called
+	 * from any thread.
+	 */
+	static BufferedImage createThumbnail(ImageSource images, int index, int size) throws IOException {
+		Dimension dimension = ImageLoader.getDimension(images, index);
+		double magnification = Math.min(1.0, Math.min(
+				(double) size / dimension.width,
+				(double) size / dimension.height
+		));
+
+		LoadedImage image = ImageLoader.fetchOriginal(images, index, magnification, false);
+		int width = ImagePyramid.scaledSize(dimension.width, magnification);
+		int height = ImagePyramid.scaledSize(dimension.height, magnification);
+		if (image.image.getWidth() == width && image.image.getHeight() == height) {
+			return image.image;
+		}
+		return Thumbnails.of(image.image)
+				.forceSize(width, height)
+				.asBufferedImage();
+	}
+
+	/**
+	 * Returns the thumbnail of the image at the given position if it is
+	 * available. Otherwise, schedules it to be created in the background
+	 * and returns {@code null}.
+	 */
+	BufferedImage request(final int index) {
+		BufferedImage thumbnail = cache.get(index);
+		if (thumbnail != null || pending.containsKey(index) || failed.contains(index)) {
+			return thumbnail;
+		}
+
+		pending.put(index, EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				BufferedImage thumbnail;
+				try {
+					thumbnail = createThumbnail(images, index, size);
+
+				} catch (IOException e) {
+					thumbnail = null;
+
+				} catch (RuntimeException e) {
+					thumbnail = null;
+
+				} catch (OutOfMemoryError e) {
+					thumbnail = null;
+				}
+
+				final BufferedImage result = thumbnail;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (pending.remove(index) == null) {
+							// Cancelled after it was created.
+							return;
+						}
+						if (result != null) {
+							cache.put(index, result);
+						} else {
+							failed.add(index);
+						}
+						callback.thumbnailLoaded(index);
+					}
+				});
+			}
+		}));
+		return null;
+	}
+
+	/**
+	 * Returns whether the thumbnail of the image at the given position
+	 * could not be created.
+	 */
+	boolean isFailed(int index) {
+		return failed.contains(index);
+	}
+
+	/**
+	 * Cancels requests for thumbnails of images outside of the given range
+	 * of positions, which have not been worked on yet.
+	 */
+	void retain(int first, int last) {
+		boolean cancelled = false;
+		for (Iterator<Map.Entry<Integer, Future<?>>> i = pending.entrySet().iterator(); i.hasNext(); ) {
+			Map.Entry<Integer, Future<?>> entry = i.next();
+			if (entry.getKey() < first || entry.getKey() > last) {
+				entry.getValue().cancel(false);
+				i.remove();
+				cancelled = true;
+			}
+		}
+		if (cancelled) {
+			EXECUTOR.purge();
+		}
+	}
+
+	/**
+	 * Cancels all requests and releases all thumbnails.
+	 */
+	void clear() {
+		retain(0, -1);
+		cache.clear();
+		failed.clear();
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+/**
+ * A strip of thumbnails of all images, in which the current image is
+ * highlighted. Clicking a thumbnail displays that image.
+ * <p>
+ * Only the cells which are visible are drawn, and only their thumbnails
+ * are requested, so that the strip stays responsive for any number of
+ * images.
+ */
+public final class ThumbnailStrip extends JComponent implements DisplayChangeListener, Scrollable {
+	/**
+	 * Size of the longer side of thumbnails.
+	 */
+	private static final int THUMBNAIL_SIZE = 64;
+
+	private static final int PADDING = 4;
+	private static final int CELL_SIZE = THUMBNAIL_SIZE + PADDING * 2;
+
+	/**
+	 * Number of cells beyond each side of the visible area whose thumbnails
+	 * are requested ahead of time.
+	 */
+	private static final int MARGIN = 4;
+
+	private static final Color SELECTION_COLOR = new Color(0x3875d7);
+
+	private final DisplayPanel dp;
+	private final ThumbnailLoader loader;
+	private final Checkerboard checkerboard = new Checkerboard();
+
+	/**
+	 * Instantiates a strip of thumbnails of the images from the source,
+	 * which navigates the given panel.
+	 *
+	 * @param images The source of images, as given to the panel.
+	 * @param dp     The panel displaying the images.
+	 */
+	public ThumbnailStrip(ImageSource images, final DisplayPanel dp) {
+		this.dp = dp;
+		this.loader = new ThumbnailLoader(images, THUMBNAIL_SIZE, new ThumbnailLoader.Callback() {
+			@Override
+			public void thumbnailLoaded(int index) {
+				repaint(cellBounds(index));
+			}
+		});
+
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				int index = e.getX() / CELL_SIZE;
+				if (index < dp.count()) {
+					dp.show(index);
+				}
+			}
+		});
+	}
+
+	private Rectangle cellBounds(int index) {
+		return new Rectangle(index * CELL_SIZE, 0, CELL_SIZE, CELL_SIZE);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(dp.count() * CELL_SIZE, CELL_SIZE);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Rectangle area = g.getClipBounds();
+		if (area == null) {
+			area = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+
+		g.setColor(getBackground());
+		g.fillRect(area.x, area.y, area.width, area.height);
+
+		int first = Math.max(0, area.x / CELL_SIZE);
+		int last = Math.min(dp.count() - 1, (area.x + area.width - 1) / CELL_SIZE);
+		for (int i = first; i <= last; i++) {
+			paintCell(g, i);
+		}
+
+		// Requests for cells which were scrolled away from are dropped, and
+		// cells just beyond the visible area are prepared.
+		Rectangle visible = getVisibleRect();
+		int firstVisible = visible.x / CELL_SIZE;
+		int lastVisible = (visible.x + visible.width - 1) / CELL_SIZE;
+		loader.retain(firstVisible - MARGIN, lastVisible + MARGIN);
+		for (int i = Math.max(0, firstVisible - MARGIN); i <= Math.min(dp.count() - 1, lastVisible + MARGIN); i++) {
+			if (i < first || i > last) {
+				loader.request(i);
+			}
+		}
+	}
+
+	private void paintCell(Graphics g, int index) {
+		Rectangle cell = cellBounds(index);
+
+		if (index == dp.current()) {
+			g.setColor(SELECTION_COLOR);
+			g.fillRect(cell.x, cell.y, cell.width, cell.height);
+		}
+
+		BufferedImage thumbnail = loader.request(index);
+		if (thumbnail != null) {
+			int x = cell.x + (cell.width - thumbnail.getWidth()) / 2;
+			int y = cell.y + (cell.height - thumbnail.getHeight()) / 2;
+			checkerboard.fill(g, getGraphicsConfiguration(), x, y, thumbnail.getWidth(), thumbnail.getHeight());
+			g.drawImage(thumbnail, x, y, null);
+
+		} else {
+			// Placeholder until the thumbnail is ready, or if it failed.
+			g.setColor(loader.isFailed(index) ? Color.red : Color.gray);
+			g.drawRect(cell.x + PADDING, cell.y + PADDING, THUMBNAIL_SIZE - 1, THUMBNAIL_SIZE - 1);
+		}
+	}
+
+	@Override
+	public void removeNotify() {
+		// Thumbnails are created again if the strip is displayed again.
+		loader.clear();
+		super.removeNotify();
+	}
+
+	@Override
+	public void imageChanged() {
+		repaint(getVisibleRect());
+		scrollRectToVisible(cellBounds(dp.current()));
+	}
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		// The width of the window is left to the image display.
+		return new Dimension(CELL_SIZE, CELL_SIZE);
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return CELL_SIZE;
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return Math.max(CELL_SIZE, visibleRect.width / CELL_SIZE * CELL_SIZE);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return false;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return true;
+	}
+}
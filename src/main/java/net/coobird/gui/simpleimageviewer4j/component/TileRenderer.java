@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.DaemonThreadFactory;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws a magnified image as a grid of fixed-size tiles, so that only the
+ * parts of the image which are visible need to be scaled.
+ * <p>
+ * Tiles are cached for the current image and magnification, and tiles which
+ * have scrolled out of view are discarded.
+ * <p>
+ * When the full image is not in memory, tiles are rendered in the background
+ * from regions decoded by a {@link RegionSource}, and an overview of the
+ * image is drawn in place of tiles which are not ready yet.
+ * <p>
+ * All methods must be called from the EDT.
+ */
+final class TileRenderer {
+	private static final int TILE_SIZE = 256;
+
+	/**
+	 * Number of tiles around the visible area to keep, so that small scrolls
+	 * do not require rendering tiles again.
+	 */
+	private static final int MARGIN = 1;
+
+	private static final int THREADS = 2;
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+			THREADS, THREADS,
+			30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new DaemonThreadFactory("tiles")
+	);
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Decodes regions of an image which is not held in memory in full.
+	 */
+	interface RegionSource {
+		/**
+		 * Decodes the given region of the full image, reduced by the given
+		 * factor. Called from background threads.
+		 */
+		BufferedImage decode(Rectangle region, int subsampling) throws IOException;
+	}
+
+	interface Callback {
+		/**
+		 * Called on the EDT when a tile which was rendered in the background
+		 * becomes available.
+		 *
+		 * @param bounds Area covered by the tile, in the same coordinate
+		 *               space as the location of the image.
+		 */
+		void tileRendered(Rectangle bounds);
+	}
+
+	private final Callback callback;
+
+	private BufferedImage source;
+	private int width;
+	private int height;
+	private final Map<Long, BufferedImage> tiles = new HashMap<Long, BufferedImage>();
+	private final Map<Long, Future<?>> pending = new HashMap<Long, Future<?>>();
+	private int generation;
+
+	/**
+	 * Location of the image when it was last drawn.
+	 */
+	private int x;
+	private int y;
+
+	TileRenderer(Callback callback) {
+		this.callback = callback;
+	}
+
+	private static long tileKey(int column, int row) {
+		return ((long) column << 32) | (row & 0xffffffffL);
+	}
+
+	private static int column(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static int row(long key) {
+		return (int) key;
+	}
+
+	private void reset(BufferedImage source, int width, int height) {
+		if (source != this.source || width != this.width || height != this.height) {
+			clear();
+			this.source = source;
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+	private Rectangle tileBounds(int column, int row) {
+		int tileWidth = Math.min(TILE_SIZE, width - column * TILE_SIZE);
+		int tileHeight = Math.min(TILE_SIZE, height - row * TILE_SIZE);
+		return new Rectangle(column * TILE_SIZE, row * TILE_SIZE, tileWidth, tileHeight);
+	}
+
+	/**
+	 * Returns the range of tiles which intersect the given area, as the
+	 * first column, first row, last column and last row.
+	 */
+	private int[] visibleTiles(int x, int y, Rectangle area) {
+		int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+		int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+		return new int[] {
+				Math.max(0, (area.x - x) / TILE_SIZE),
+				Math.max(0, (area.y - y) / TILE_SIZE),
+				Math.min(columns - 1, (area.x + area.width - x) / TILE_SIZE),
+				Math.min(rows - 1, (area.y + area.height - y) / TILE_SIZE)
+		};
+	}
+
+	/**
+	 * Draws the source image scaled to the given size at the given location,
+	 * only rendering tiles which intersect the given area.
+	 *
+	 * @param g       Graphics to draw to.
+	 * @param source  Image to draw.
+	 * @param x       Horizontal location of the image.
+	 * @param y       Vertical location of the image.
+	 * @param width   Width of the magnified image.
+	 * @param height  Height of the magnified image.
+	 * @param area    Area which needs to be drawn, in the same coordinate
+	 *                space as the location of the image.
+	 * @param visible Area which is visible, around which tiles are kept.
+	 *                Usually larger than the area to draw, which may be
+	 *                a single tile when it is repainted.
+	 */
+	void paint(
+			Graphics g, BufferedImage source,
+			int x, int y, int width, int height, Rectangle area, Rectangle visible
+	) {
+		reset(source, width, height);
+
+		int[] range = visibleTiles(x, y, area);
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				long key = tileKey(column, row);
+				BufferedImage tile = tiles.get(key);
+				if (tile == null) {
+					tile = renderTile(source, tileBounds(column, row), width, height);
+					tiles.put(key, tile);
+				}
+				g.drawImage(tile, x + column * TILE_SIZE, y + row * TILE_SIZE, null);
+			}
+		}
+
+		retain(x, y, visible);
+	}
+
+	/**
+	 * Draws an image which is not held in memory in full, scaled to the
+	 * given size at the given location. Tiles which intersect the given area
+	 * are rendered in the background from decoded regions, and the overview
+	 * is drawn where tiles are not ready yet.
+	 *
+	 * @param g           Graphics to draw to.
+	 * @param regions     Source of regions of the full image.
+	 * @param overview    Reduced resolution image of the whole image.
+	 * @param fullWidth   Width of the full image.
+	 * @param fullHeight  Height of the full image.
+	 * @param x           Horizontal location of the image.
+	 * @param y           Vertical location of the image.
+	 * @param width       Width of the magnified image.
+	 * @param height      Height of the magnified image.
+	 * @param area        Area which needs to be drawn, in the same coordinate
+	 *                    space as the location of the image.
+	 * @param visible     Area which is visible, around which tiles, and
+	 *                    tiles being rendered, are kept.
+	 * @param subsampling Reduction factor to decode regions with.
+	 */
+	void paint(
+			Graphics g, RegionSource regions, BufferedImage overview,
+			int fullWidth, int fullHeight,
+			int x, int y, int width, int height, Rectangle area, Rectangle visible, int subsampling
+	) {
+		reset(overview, width, height);
+		this.x = x;
+		this.y = y;
+
+		int[] range = visibleTiles(x, y, area);
+		boolean complete = true;
+		for (int row = range[1]; row <= range[3] && complete; row++) {
+			for (int column = range[0]; column <= range[2] && complete; column++) {
+				complete = tiles.containsKey(tileKey(column, row));
+			}
+		}
+
+		if (!complete) {
+			Graphics2D g2d = (Graphics2D) g.create();
+			g2d.clipRect(area.x, area.y, area.width, area.height);
+			g2d.setRenderingHint(
+					RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+			);
+			g2d.drawImage(overview, x, y, width, height, null);
+			g2d.dispose();
+		}
+
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				long key = tileKey(column, row);
+				BufferedImage tile = tiles.get(key);
+				if (tile != null) {
+					g.drawImage(tile, x + column * TILE_SIZE, y + row * TILE_SIZE, null);
+
+				} else if (!pending.containsKey(key)) {
+					pending.put(key, submit(
+							key, regions, overview, fullWidth, fullHeight, subsampling
+					));
+				}
+			}
+		}
+
+		retain(x, y, visible);
+	}
+
+	/**
+	 * Discards tiles, and cancels tiles being rendered, which are not within
+	 * the margin around the visible area. The area which was drawn is not
+	 * used, as tiles outside of it may well still be visible.
+	 */
+	private void retain(int x, int y, Rectangle visible) {
+		int[] range = visibleTiles(x, y, visible);
+		evict(range[0] - MARGIN, range[1] - MARGIN, range[2] + MARGIN, range[3] + MARGIN);
+	}
+
+	private Future<?> submit(
+			final long key, final RegionSource regions, final BufferedImage overview,
+			final int fullWidth, final int fullHeight, final int subsampling
+	) {
+		final int requestGeneration = generation;
+		final Rectangle bounds = tileBounds(column(key), row(key));
+		final int width = this.width;
+		final int height = this.height;
+
+		return EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+				BufferedImage tile;
+				try {
+					tile = renderRegionTile(
+							regions, bounds, fullWidth, fullHeight, width, height, subsampling
+					);
+
+				} catch (IOException e) {
+					// Settle for the overview, rather than trying again on
+					// every repaint.
+					tile = renderTile(overview, bounds, width, height);
+
+				} catch (RuntimeException e) {
+					tile = renderTile(overview, bounds, width, height);
+
+				} catch (OutOfMemoryError e) {
+					tile = renderTile(overview, bounds, width, height);
+				}
+
+				final BufferedImage renderedTile = tile;
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (requestGeneration == generation && pending.remove(key) != null) {
+							tiles.put(key, renderedTile);
+							callback.tileRendered(new Rectangle(
+									x + bounds.x, y + bounds.y, bounds.width, bounds.height
+							));
+						}
+					}
+				});
+			}
+		});
+	}
+
+	private static BufferedImage createTile(BufferedImage source, Rectangle bounds) {
+		int type = source.getColorModel().hasAlpha()
+				? BufferedImage.TYPE_INT_ARGB
+				: BufferedImage.TYPE_INT_RGB;
+		return new BufferedImage(bounds.width, bounds.height, type);
+	}
+
+	private static BufferedImage renderTile(BufferedImage source, Rectangle bounds, int width, int height) {
+		BufferedImage tile = createTile(source, bounds);
+		Graphics2D g = tile.createGraphics();
+		g.setRenderingHint(
+				RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+		);
+
+		// Drawing the whole image offset into the tile (rather than mapping
+		// a source sub-region) keeps pixel boundaries identical to drawing
+		// the image in one go, so no seams appear between tiles.
+		// Only the part which falls within the tile is actually scaled.
+		g.drawImage(source, -bounds.x, -bounds.y, width, height, null);
+		g.dispose();
+
+		return tile;
+	}
+
+	private static BufferedImage renderRegionTile(
+			RegionSource regions, Rectangle bounds,
+			int fullWidth, int fullHeight, int width, int height, int subsampling
+	) throws IOException {
+		double scaleX = (double) width / fullWidth;
+		double scaleY = (double) height / fullHeight;
+
+		// Part of the full image covered by the tile, aligned to the
+		// subsampling grid so that neighbouring tiles sample the same pixels,
+		// and with a margin for interpolation at the edges.
+		int left = (int) Math.floor(bounds.x / scaleX) / subsampling * subsampling;
+		int top = (int) Math.floor(bounds.y / scaleY) / subsampling * subsampling;
+		int right = Math.min(fullWidth, (int) Math.ceil((bounds.x + bounds.width) / scaleX) + subsampling);
+		int bottom = Math.min(fullHeight, (int) Math.ceil((bounds.y + bounds.height) / scaleY) + subsampling);
+		Rectangle region = new Rectangle(left, top, right - left, bottom - top);
+
+		BufferedImage decoded = regions.decode(region, subsampling);
+
+		BufferedImage tile = createTile(decoded, bounds);
+		Graphics2D g = tile.createGraphics();
+		g.setRenderingHint(
+				RenderingHints.KEY_INTERPOLATION,
+				scaleX * subsampling < 1.0
+						? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+						: RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+		);
+
+		// Maps pixels of the decoded region to the same place they would
+		// take if the full image was drawn at the magnified size.
+		g.translate(-bounds.x, -bounds.y);
+		g.scale(scaleX, scaleY);
+		g.translate(region.x, region.y);
+		g.scale(subsampling, subsampling);
+		g.drawImage(decoded, 0, 0, null);
+		g.dispose();
+
+		return tile;
+	}
+
+	private void evict(int firstColumn, int firstRow, int lastColumn, int lastRow) {
+		Iterator<Long> keys = tiles.keySet().iterator();
+		while (keys.hasNext()) {
+			long key = keys.next();
+			if (isOutside(key, firstColumn, firstRow, lastColumn, lastRow)) {
+				keys.remove();
+			}
+		}
+
+		boolean cancelled = false;
+		Iterator<Map.Entry<Long, Future<?>>> entries = pending.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Long, Future<?>> entry = entries.next();
+			if (isOutside(entry.getKey(), firstColumn, firstRow, lastColumn, lastRow)) {
+				entry.getValue().cancel(false);
+				entries.remove();
+				cancelled = true;
+			}
+		}
+		if (cancelled) {
+			EXECUTOR.purge();
+		}
+	}
+
+	private static boolean isOutside(long key, int firstColumn, int firstRow, int lastColumn, int lastRow) {
+		int column = column(key);
+		int row = row(key);
+		return column < firstColumn || column > lastColumn || row < firstRow || row > lastRow;
+	}
+
+	/**
+	 * Discards all tiles, and cancels tiles being rendered in the background.
+	 */
+	void clear() {
+		generation++;
+		tiles.clear();
+		if (!pending.isEmpty()) {
+			for (Future<?> future : pending.values()) {
+				future.cancel(false);
+			}
+			pending.clear();
+			EXECUTOR.purge();
+		}
+		source = null;
+	}
+}
@@ -22,17 +22,33 @@
 
 package net.coobird.gui.simpleimageviewer4j.component;
 
-import javax.swing.JComponent;
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
 import java.awt.BorderLayout;
+import java.awt.Point;
 import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
 public final class ViewerPanel extends JPanel {
 
+	/**
+	 * Factor by which each notch of the mouse wheel changes magnification.
+	 */
+	private static final double WHEEL_ZOOM_FACTOR = Math.sqrt(2.0);
+
+	/**
+	 * Distance in pixels to drag to double or halve the magnification.
+	 */
+	private static final double DRAG_DOUBLING_DISTANCE = 100.0;
+
 	/**
 	 * Instantiates a {@code ViewerPanel} instance which will be prepared to
 	 * display the specified images.
@@ -43,28 +59,118 @@ public final class ViewerPanel extends JPanel {
 	 * @param images The images to display.
 	 */
 	public ViewerPanel(List<BufferedImage> images) {
+		this(new ListImageSource(images));
+	}
+
+	/**
+	 * Instantiates a {@code ViewerPanel} instance which will be prepared to
+	 * display images from the specified source.
+	 *
+	 * @param images The source of images to display.
+	 */
+	public ViewerPanel(ImageSource images) {
+		this(images, null);
+	}
+
+	/**
+	 * Instantiates a {@code ViewerPanel} instance which will be prepared to
+	 * display images from the specified source, keeping scaled renditions
+	 * in the specified cache, which may be shared with other viewers.
+	 *
+	 * @param images The source of images to display.
+	 * @param cache  The cache for scaled renditions, or {@code null} for
+	 *               a cache of this viewer's own.
+	 */
+	public ViewerPanel(ImageSource images, ImageCache cache) {
 		this.setLayout(new BorderLayout());
 
-		final DisplayPanel dp = new DisplayPanel(images);
+		final DisplayPanel dp = cache != null
+				? new DisplayPanel(images, cache)
+				: new DisplayPanel(images);
 		this.addKeyListener(new KeyNavigation(dp));
 
-		final JComponent scrollingViewPane = new JScrollPane(dp);
-		dp.addMouseWheelListener(new MouseAdapter() {
+		final JScrollPane scrollingViewPane = new JScrollPane(dp);
+
+		// Scrolling copies what is already on screen, so that only the newly
+		// exposed strips of the panel are painted.
+		scrollingViewPane.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
+		MouseAdapter zoomGestures = new MouseAdapter() {
+			private int lastY;
+
+			/**
+			 * Point where dragging started, in screen coordinates, which
+			 * stay the same as the panel moves while zooming.
+			 */
+			private Point dragOrigin;
+
+			/**
+			 * Wheel rotation which has not been applied yet. Wheel events
+			 * which are already queued are added up and applied as a single
+			 * change of magnification.
+			 */
+			private int pendingRotation;
+			private Point wheelPoint;
+			private boolean applyScheduled;
+
 			@Override
 			public void mouseWheelMoved(MouseWheelEvent e) {
-				if (e.getUnitsToScroll() > 0) {
-					dp.getZoomModel().zoomOut();
+				pendingRotation += e.getWheelRotation();
+				wheelPoint = e.getPoint();
+				if (!applyScheduled) {
+					applyScheduled = true;
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							int rotation = pendingRotation;
+							pendingRotation = 0;
+							applyScheduled = false;
+							if (rotation != 0) {
+								dp.zoomAt(Math.pow(WHEEL_ZOOM_FACTOR, -rotation), wheelPoint);
+							}
+						}
+					});
+				}
+			}
 
-				} else if (e.getUnitsToScroll() < 0) {
-					dp.getZoomModel().zoomIn();
+			@Override
+			public void mousePressed(MouseEvent e) {
+				lastY = e.getYOnScreen();
+				dragOrigin = e.getLocationOnScreen();
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				// Dragging up with the control key held zooms in, around the
+				// point where dragging started.
+				if (e.isControlDown()) {
+					int distance = lastY - e.getYOnScreen();
+					Point origin = new Point(dragOrigin);
+					SwingUtilities.convertPointFromScreen(origin, dp);
+					dp.zoomAt(Math.pow(2.0, distance / DRAG_DOUBLING_DISTANCE), origin);
 				}
+				lastY = e.getYOnScreen();
 			}
-		});
+		};
+		dp.addMouseWheelListener(zoomGestures);
+		dp.addMouseListener(zoomGestures);
+		dp.addMouseMotionListener(zoomGestures);
 
 		final NavigationPanel np = new NavigationPanel(dp);
 		dp.addListener(np);
 
+		JPanel controls = new JPanel(new BorderLayout());
+		controls.add(np, BorderLayout.SOUTH);
+		if (images.size() > 1) {
+			ThumbnailStrip strip = new ThumbnailStrip(images, dp);
+			dp.addListener(strip);
+			controls.add(new JScrollPane(
+					strip,
+					JScrollPane.VERTICAL_SCROLLBAR_NEVER,
+					JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS
+			), BorderLayout.CENTER);
+		}
+
 		this.add(scrollingViewPane, BorderLayout.CENTER);
-		this.add(np, BorderLayout.SOUTH);
+		this.add(controls, BorderLayout.SOUTH);
 	}
 }
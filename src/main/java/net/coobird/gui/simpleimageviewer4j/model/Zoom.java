@@ -26,10 +26,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Magnification at which images are displayed.
+ * <p>
+ * The magnification can either be stepped through a fixed set of zoom
+ * levels, or be set to any value between a minimum and a maximum for
+ * continuous zooming.
+ */
 public class Zoom {
-	private int zoomIndex;
+	private double magnification;
 
 	private final double[] zoomLevels;
+	private final double minimum;
+	private final double maximum;
 	private final List<ZoomChangeListener> listeners = new ArrayList<ZoomChangeListener>();
 
 	private static void checkArrayInAscendingOrder(double[] zoomLevels) {
@@ -43,6 +52,21 @@ public class Zoom {
 	}
 
 	public Zoom(double[] zoomLevels, int defaultZoomIndex) {
+		this(zoomLevels, defaultZoomIndex, Double.NaN, Double.NaN);
+	}
+
+	/**
+	 * Creates a zoom model whose magnification can be set continuously
+	 * between the given minimum and maximum, in addition to the zoom levels.
+	 *
+	 * @param zoomLevels       Zoom levels, in ascending order.
+	 * @param defaultZoomIndex Index of the initial zoom level.
+	 * @param minimum          Minimum magnification, no larger than the
+	 *                         first zoom level.
+	 * @param maximum          Maximum magnification, no smaller than the
+	 *                         last zoom level.
+	 */
+	public Zoom(double[] zoomLevels, int defaultZoomIndex, double minimum, double maximum) {
 		if (zoomLevels == null) {
 			throw new NullPointerException("Zoom levels array cannot be null.");
 		}
@@ -61,8 +85,25 @@ public class Zoom {
 		if (defaultZoomIndex > zoomLevels.length - 1 || defaultZoomIndex < 0) {
 			throw new IllegalArgumentException("Default zoom level out of range.");
 		}
-		this.zoomLevels = zoomLevels;
-		this.zoomIndex = defaultZoomIndex;
+
+		// Without explicit bounds, the zoom levels are the bounds.
+		if (Double.isNaN(minimum)) {
+			minimum = zoomLevels[0];
+		}
+		if (Double.isNaN(maximum)) {
+			maximum = zoomLevels[zoomLevels.length - 1];
+		}
+		if (!(minimum > 0.0) || minimum > zoomLevels[0]) {
+			throw new IllegalArgumentException("Minimum magnification must be positive, and not above the zoom levels.");
+		}
+		if (maximum < zoomLevels[zoomLevels.length - 1] || Double.isInfinite(maximum)) {
+			throw new IllegalArgumentException("Maximum magnification must be finite, and not below the zoom levels.");
+		}
+
+		this.zoomLevels = zoomLevels.clone();
+		this.magnification = zoomLevels[defaultZoomIndex];
+		this.minimum = minimum;
+		this.maximum = maximum;
 	}
 
 	public void addListener(ZoomChangeListener listener) {
@@ -75,34 +116,89 @@ public class Zoom {
 
 	public void notifyListeners() {
 		for (ZoomChangeListener listener : listeners) {
-			listener.zoomChanged(zoomLevels[zoomIndex]);
+			listener.zoomChanged(magnification);
 		}
 	}
 
+	/**
+	 * Changes the magnification to the next zoom level above the current
+	 * magnification.
+	 */
 	public void zoomIn() {
-		if (isZoomInPossible()) {
-			zoomIndex++;
-			notifyListeners();
+		for (double level : zoomLevels) {
+			if (level > magnification) {
+				magnification = level;
+				notifyListeners();
+				return;
+			}
 		}
 	}
 
+	/**
+	 * Changes the magnification to the next zoom level below the current
+	 * magnification.
+	 */
 	public void zoomOut() {
-		if (isZoomOutPossible()) {
-			zoomIndex--;
+		for (int i = zoomLevels.length - 1; i >= 0; i--) {
+			if (zoomLevels[i] < magnification) {
+				magnification = zoomLevels[i];
+				notifyListeners();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Changes the magnification to any value, limited to the minimum and
+	 * maximum magnification. Listeners are only notified if the
+	 * magnification changed.
+	 *
+	 * @param zoom The new magnification.
+	 */
+	public void zoomTo(double zoom) {
+		if (!(zoom > 0.0) || Double.isInfinite(zoom)) {
+			throw new IllegalArgumentException(
+					String.format("%s is not a valid magnification.", zoom)
+			);
+		}
+
+		zoom = Math.max(minimum, Math.min(maximum, zoom));
+		if (zoom != magnification) {
+			magnification = zoom;
 			notifyListeners();
 		}
 	}
 
+	/**
+	 * Multiplies the magnification by the given factor, limited to the
+	 * minimum and maximum magnification.
+	 *
+	 * @param factor Factor to multiply the magnification by.
+	 */
+	public void zoomBy(double factor) {
+		if (!(factor > 0.0) || Double.isInfinite(factor)) {
+			throw new IllegalArgumentException(
+					String.format("%s is not a valid zoom factor.", factor)
+			);
+		}
+		zoomTo(magnification * factor);
+	}
+
 	public double[] getZoomLevels() {
 		double[] tmp = new double[zoomLevels.length];
 		System.arraycopy(zoomLevels, 0, tmp, 0, zoomLevels.length);
 		return tmp;
 	}
 	
+	/**
+	 * Changes the magnification to one of the zoom levels.
+	 *
+	 * @param zoom The new magnification, which must be a zoom level.
+	 */
 	public void setMagnification(double zoom) {
-		for (int i = 0; i < zoomLevels.length; i++) {
-			if (zoom == zoomLevels[i]) {
-				zoomIndex = i;
+		for (double level : zoomLevels) {
+			if (zoom == level) {
+				magnification = level;
 				notifyListeners();
 				return;
 			}
@@ -113,14 +209,22 @@ public class Zoom {
 	}
 
 	public boolean isZoomInPossible() {
-		return zoomIndex < zoomLevels.length - 1;
+		return zoomLevels[zoomLevels.length - 1] > magnification;
 	}
 
 	public boolean isZoomOutPossible() {
-		return zoomIndex > 0;
+		return zoomLevels[0] < magnification;
 	}
 
 	public double getMagnification() {
-		return zoomLevels[zoomIndex];
+		return magnification;
+	}
+
+	public double getMinimumMagnification() {
+		return minimum;
+	}
+
+	public double getMaximumMagnification() {
+		return maximum;
 	}
 }
@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of reduced-resolution renditions of image files, kept on disk so
+ * that they survive between runs. Reopening the same images can then skip
+ * decoding them, which dominates the time to display previews of large
+ * images.
+ * <p>
+ * Renditions are keyed by the path, size and modification time of the
+ * file, and the subsampling factor, so that renditions of files which
+ * have changed are not used. Such stale renditions are eventually removed
+ * along with the least recently used ones, when the size of the cache
+ * exceeds its budget.
+ * <p>
+ * Renditions are stored as uncompressed pixels, three bytes per pixel for
+ * opaque images, which are read back through a {@link FileChannel} without
+ * decoding. Renditions larger than {@value #MAXIMUM_PIXELS} pixels are not
+ * stored.
+ * <p>
+ * The cache is best-effort: renditions which cannot be read or written are
+ * treated as absent. Instances are thread-safe, and several instances, even
+ * in different processes, may use the same directory.
+ */
+public final class DiskCache {
+	/**
+	 * Default budget, in bytes.
+	 */
+	private static final long DEFAULT_BUDGET = 512L * 1024 * 1024;
+
+	/**
+	 * Number of pixels above which renditions are not stored.
+	 */
+	public static final int MAXIMUM_PIXELS = 2048 * 2048;
+
+	private static final int MAGIC = 0x53495631;
+	private static final int HEADER_SIZE = 16;
+	private static final String SUFFIX = ".rendition";
+	private static final String TEMPORARY_PREFIX = "rendition";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	/**
+	 * Age after which temporary files are taken to be left over by a crash,
+	 * rather than being written by another instance.
+	 */
+	private static final long STALE_TEMPORARY_AGE = TimeUnit.HOURS.toMillis(1);
+
+	private final File directory;
+	private final long maximumBytes;
+
+	/**
+	 * Size of the stored renditions in bytes, as far as this instance
+	 * knows. Files written by other instances are found upon eviction.
+	 */
+	private final AtomicLong size = new AtomicLong();
+	private final Object evictionLock = new Object();
+
+	/**
+	 * Creates a cache in the given directory, with a budget of 512 MiB.
+	 *
+	 * @param directory Directory to store renditions in, which is created
+	 *                  if it does not exist.
+	 * @throws IOException If the directory could not be created.
+	 */
+	public DiskCache(File directory) throws IOException {
+		this(directory, DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates a cache in the given directory, with the given budget.
+	 *
+	 * @param directory    Directory to store renditions in, which is
+	 *                     created if it does not exist.
+	 * @param maximumBytes Budget for stored renditions, in bytes.
+	 * @throws IOException If the directory could not be created.
+	 */
+	public DiskCache(File directory, long maximumBytes) throws IOException {
+		if (directory == null) {
+			throw new NullPointerException("Must specify a directory.");
+		}
+		if (maximumBytes < 0) {
+			throw new IllegalArgumentException("Budget must not be negative.");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		this.directory = directory;
+		this.maximumBytes = maximumBytes;
+
+		deleteStaleTemporaryFiles();
+		for (File entry : listEntries()) {
+			size.addAndGet(entry.length());
+		}
+	}
+
+	/**
+	 * Deletes temporary files which were left over, such as by a crash while
+	 * a rendition was being written, as they are not counted in the size of
+	 * the cache.
+	 */
+	private void deleteStaleTemporaryFiles() {
+		File[] temporaryFiles = directory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				String name = file.getName();
+				return name.startsWith(TEMPORARY_PREFIX) && name.endsWith(TEMPORARY_SUFFIX);
+			}
+		});
+		if (temporaryFiles == null) {
+			return;
+		}
+
+		long staleBefore = System.currentTimeMillis() - STALE_TEMPORARY_AGE;
+		for (File file : temporaryFiles) {
+			if (file.lastModified() < staleBefore) {
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Returns the directory renditions are stored in.
+	 *
+	 * @return The directory of this cache.
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Returns the budget of this cache.
+	 *
+	 * @return Budget for stored renditions, in bytes.
+	 */
+	public long getMaximumBytes() {
+		return maximumBytes;
+	}
+
+	/**
+	 * Returns the stored rendition of the given file at the given
+	 * subsampling factor.
+	 *
+	 * @param file        The image file.
+	 * @param subsampling Subsampling factor of the rendition.
+	 * @return The rendition, or {@code null} if none is stored.
+	 */
+	public BufferedImage get(File file, int subsampling) {
+		File entry = entryFor(file, subsampling);
+		if (entry == null || !entry.isFile()) {
+			return null;
+		}
+
+		BufferedImage image;
+		try {
+			image = read(entry);
+
+		} catch (IOException e) {
+			image = null;
+
+		} catch (OutOfMemoryError e) {
+			// The rendition is fine, and may be read once memory is freed.
+			return null;
+		}
+		if (image == null) {
+			// Truncated or otherwise unusable, such as by a crash while
+			// it was being written.
+			delete(entry);
+			return null;
+		}
+
+		// Renditions are evicted in order of their modification time.
+		entry.setLastModified(System.currentTimeMillis());
+		return image;
+	}
+
+	/**
+	 * Stores a rendition of the given file at the given subsampling factor.
+	 * Renditions larger than {@link #MAXIMUM_PIXELS} are not stored.
+	 *
+	 * @param file        The image file.
+	 * @param subsampling Subsampling factor of the rendition.
+	 * @param image       The rendition.
+	 */
+	public void put(File file, int subsampling, BufferedImage image) {
+		if ((long) image.getWidth() * image.getHeight() > MAXIMUM_PIXELS) {
+			return;
+		}
+		File entry = entryFor(file, subsampling);
+		if (entry == null) {
+			return;
+		}
+
+		File temporary;
+		try {
+			temporary = File.createTempFile(TEMPORARY_PREFIX, TEMPORARY_SUFFIX, directory);
+
+		} catch (IOException e) {
+			return;
+		}
+		long length;
+		long replaced;
+		boolean stored = false;
+		try {
+			write(temporary, image);
+			length = temporary.length();
+			replaced = entry.length();
+
+			// Some platforms do not replace existing files, in which case
+			// another thread has stored the same rendition.
+			stored = temporary.renameTo(entry);
+
+		} catch (IOException e) {
+			return;
+
+		} catch (RuntimeException e) {
+			// Such as from an image which cannot be read, in which case it
+			// is only not stored.
+			return;
+
+		} catch (OutOfMemoryError e) {
+			return;
+
+		} finally {
+			if (!stored) {
+				temporary.delete();
+			}
+		}
+
+		if (stored && size.addAndGet(length - replaced) > maximumBytes) {
+			evict();
+		}
+	}
+
+	/**
+	 * Removes all renditions from this cache.
+	 */
+	public void clear() {
+		synchronized (evictionLock) {
+			for (File entry : listEntries()) {
+				delete(entry);
+			}
+		}
+	}
+
+	/**
+	 * Returns the file which the rendition is stored in, named after a
+	 * digest of its key, or {@code null} if the image file does not exist.
+	 */
+	private File entryFor(File file, int subsampling) {
+		long lastModified = file.lastModified();
+		if (lastModified == 0) {
+			return null;
+		}
+
+		String key = file.getAbsolutePath()
+				+ '\n' + file.length()
+				+ '\n' + lastModified
+				+ '\n' + subsampling;
+
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-1 and UTF-8.
+			throw new IllegalStateException("This should not happen.", e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException("This should not happen.", e);
+		}
+
+		StringBuilder name = new StringBuilder(digest.length * 2 + SUFFIX.length());
+		for (byte b : digest) {
+			name.append(Character.forDigit((b >> 4) & 0xf, 16));
+			name.append(Character.forDigit(b & 0xf, 16));
+		}
+		return new File(directory, name.append(SUFFIX).toString());
+	}
+
+	private static void write(File entry, BufferedImage image) throws IOException {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		boolean alpha = image.getColorModel().hasAlpha();
+		int channels = alpha ? 4 : 3;
+
+		int[] row = new int[width];
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + width * height * channels);
+		buffer.putInt(MAGIC).putInt(width).putInt(height).putInt(channels);
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+			for (int argb : row) {
+				if (alpha) {
+					buffer.put((byte) (argb >>> 24));
+				}
+				buffer.put((byte) (argb >>> 16));
+				buffer.put((byte) (argb >>> 8));
+				buffer.put((byte) argb);
+			}
+		}
+		buffer.flip();
+
+		FileOutputStream out = new FileOutputStream(entry);
+		try {
+			FileChannel channel = out.getChannel();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+
+		} finally {
+			out.close();
+		}
+	}
+
+	private static BufferedImage read(File entry) throws IOException {
+		FileInputStream in = new FileInputStream(entry);
+		try {
+			FileChannel channel = in.getChannel();
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > HEADER_SIZE + 4L * MAXIMUM_PIXELS) {
+				return null;
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) length);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					return null;
+				}
+			}
+			buffer.flip();
+
+			int magic = buffer.getInt();
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int channels = buffer.getInt();
+			if (magic != MAGIC
+					|| width <= 0 || height <= 0
+					|| (channels != 3 && channels != 4)
+					|| length != HEADER_SIZE + (long) width * height * channels) {
+				return null;
+			}
+
+			boolean alpha = channels == 4;
+			BufferedImage image = new BufferedImage(
+					width, height,
+					alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB
+			);
+			byte[] data = buffer.array();
+			int p = HEADER_SIZE;
+			int[] row = new int[width];
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int a = alpha ? data[p++] & 0xff : 0xff;
+					int r = data[p++] & 0xff;
+					int g = data[p++] & 0xff;
+					int b = data[p++] & 0xff;
+					row[x] = (a << 24) | (r << 16) | (g << 8) | b;
+				}
+				image.setRGB(0, y, width, 1, row, 0, width);
+			}
+			return image;
+
+		} finally {
+			in.close();
+		}
+	}
+
+	private File[] listEntries() {
+		File[] entries = directory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.getName().endsWith(SUFFIX);
+			}
+		});
+		return entries != null ? entries : new File[0];
+	}
+
+	private void delete(File entry) {
+		long length = entry.length();
+		if (entry.delete()) {
+			size.addAndGet(-length);
+		}
+	}
+
+	/**
+	 * Removes the least recently used renditions until the cache is within
+	 * its budget.
+	 */
+	private void evict() {
+		synchronized (evictionLock) {
+			File[] entries = listEntries();
+
+			// Recounted, to include renditions stored by other instances.
+			long total = 0;
+			final long[] lastModified = new long[entries.length];
+			Integer[] order = new Integer[entries.length];
+			for (int i = 0; i < entries.length; i++) {
+				total += entries[i].length();
+				lastModified[i] = entries[i].lastModified();
+				order[i] = i;
+			}
+			size.set(total);
+
+			// Modification times are read beforehand, as they may change
+			// while sorting.
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i1, Integer i2) {
+					long t1 = lastModified[i1];
+					long t2 = lastModified[i2];
+					return t1 < t2 ? -1 : (t1 > t2 ? 1 : 0);
+				}
+			});
+
+			for (int i = 0; i < order.length && size.get() > maximumBytes; i++) {
+				delete(entries[order[i]]);
+			}
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * An {@link ImageSource} which decodes images from files using Image I/O,
+ * only when they are needed.
+ * <p>
+ * When images are displayed zoomed out, they are decoded at reduced
+ * resolution, so that full resolution images do not need to be held in
+ * memory just to be displayed at a fraction of their size. Very large
+ * images are decoded a region at a time, as they are viewed.
+ * <p>
+ * Reduced-resolution images can be kept in a {@link DiskCache}, so that
+ * they need not be decoded again when the same files are opened later.
+ */
+public final class FileImageSource extends LoadingImageSource {
+	private final List<File> files;
+	private final DiskCache diskCache;
+
+	/**
+	 * Creates a source for the given image files.
+	 * <p>
+	 * Changes made to the original {@link List} will not be visible to the
+	 * source.
+	 *
+	 * @param files The image files.
+	 */
+	public FileImageSource(List<File> files) {
+		this(files, null);
+	}
+
+	/**
+	 * Creates a source for the given image files, which keeps images
+	 * decoded at reduced resolution in the given disk cache.
+	 * <p>
+	 * Changes made to the original {@link List} will not be visible to the
+	 * source.
+	 *
+	 * @param files     The image files.
+	 * @param diskCache Cache of reduced-resolution images, or {@code null}
+	 *                  to always decode them.
+	 */
+	public FileImageSource(List<File> files, DiskCache diskCache) {
+		if (files == null) {
+			throw new NullPointerException("Must specify files.");
+		}
+		for (File file : files) {
+			if (file == null) {
+				throw new NullPointerException("A null file was provided.");
+			}
+		}
+		this.files = Collections.unmodifiableList(new ArrayList<File>(files));
+		this.diskCache = diskCache;
+	}
+
+	/**
+	 * Creates a source for the image files in the given directory, in the
+	 * order of their names. Files are recognized as images by their suffix.
+	 *
+	 * @param directory Directory containing images.
+	 * @return A source for the images in the directory.
+	 * @throws IOException If the directory could not be read.
+	 */
+	public static FileImageSource fromDirectory(File directory) throws IOException {
+		return fromDirectory(directory, null);
+	}
+
+	/**
+	 * Creates a source for the image files in the given directory, in the
+	 * order of their names, which keeps images decoded at reduced resolution
+	 * in the given disk cache. Files are recognized as images by their
+	 * suffix.
+	 *
+	 * @param directory Directory containing images.
+	 * @param diskCache Cache of reduced-resolution images, or {@code null}
+	 *                  to always decode them.
+	 * @return A source for the images in the directory.
+	 * @throws IOException If the directory could not be read.
+	 */
+	public static FileImageSource fromDirectory(File directory, DiskCache diskCache) throws IOException {
+		if (directory == null) {
+			throw new NullPointerException("Must specify a directory.");
+		}
+
+		final Set<String> suffixes = new HashSet<String>();
+		for (String suffix : ImageIO.getReaderFileSuffixes()) {
+			suffixes.add(suffix.toLowerCase(Locale.ENGLISH));
+		}
+
+		File[] files = directory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				String name = file.getName();
+				int dot = name.lastIndexOf('.');
+				return file.isFile()
+						&& dot != -1
+						&& suffixes.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+			}
+		});
+		if (files == null) {
+			throw new IOException("Could not list files in " + directory);
+		}
+
+		Arrays.sort(files);
+		return new FileImageSource(Arrays.asList(files), diskCache);
+	}
+
+	/**
+	 * Returns the file of the image at the specified position.
+	 *
+	 * @param index Zero-based position of the image.
+	 * @return The image file.
+	 */
+	public File getFile(int index) {
+		return files.get(index);
+	}
+
+	@Override
+	public int size() {
+		return files.size();
+	}
+
+	@Override
+	protected BufferedImage load(int index) throws IOException {
+		return decode(index, null, 1);
+	}
+
+	@Override
+	protected BufferedImage load(int index, int subsampling) throws IOException {
+		if (diskCache == null) {
+			return decode(index, null, subsampling);
+		}
+
+		File file = files.get(index);
+		BufferedImage image = diskCache.get(file, subsampling);
+		if (image == null) {
+			image = decode(index, null, subsampling);
+			diskCache.put(file, subsampling, image);
+		}
+		return image;
+	}
+
+	@Override
+	public boolean isRegionSupported() {
+		return true;
+	}
+
+	@Override
+	protected BufferedImage loadRegion(int index, Rectangle region, int subsampling) throws IOException {
+		return decode(index, region, subsampling);
+	}
+
+	@Override
+	protected Dimension loadDimension(int index) throws IOException {
+		ImageInputStream iis = openStream(index);
+		try {
+			ImageReader reader = getReader(index, iis);
+			try {
+				return new Dimension(reader.getWidth(0), reader.getHeight(0));
+
+			} finally {
+				reader.dispose();
+			}
+
+		} finally {
+			iis.close();
+		}
+	}
+
+	private BufferedImage decode(int index, Rectangle region, int subsampling) throws IOException {
+		ImageInputStream iis = openStream(index);
+		try {
+			ImageReader reader = getReader(index, iis);
+			try {
+				ImageReadParam param = reader.getDefaultReadParam();
+				if (region != null) {
+					param.setSourceRegion(region);
+				}
+				if (subsampling > 1) {
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+				return reader.read(0, param);
+
+			} finally {
+				reader.dispose();
+			}
+
+		} finally {
+			iis.close();
+		}
+	}
+
+	private ImageInputStream openStream(int index) throws IOException {
+		File file = files.get(index);
+		ImageInputStream iis = ImageIO.createImageInputStream(file);
+		if (iis == null) {
+			throw new IOException("Could not open " + file);
+		}
+		return iis;
+	}
+
+	private ImageReader getReader(int index, ImageInputStream iis) throws IOException {
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+		if (!readers.hasNext()) {
+			throw new IOException("No reader available for " + files.get(index));
+		}
+		ImageReader reader = readers.next();
+		reader.setInput(iis, true, true);
+		return reader;
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Supplies the images to display, by their position.
+ * <p>
+ * Implementations may produce images on demand, rather than keeping all of
+ * them in memory, as only the images which are being displayed or prepared
+ * for display are requested.
+ * <p>
+ * Implementations must be thread-safe, as images are requested from
+ * background threads, so that producing them does not block the user
+ * interface. Implementations which produce images by decoding them should
+ * consider extending {@link LoadingImageSource}, which also keeps recently
+ * produced images and can produce them at reduced resolution.
+ */
+public interface ImageSource {
+	/**
+	 * Returns the number of images.
+	 *
+	 * @return Number of images.
+	 */
+	int size();
+
+	/**
+	 * Returns the image at the specified position.
+	 *
+	 * @param index Zero-based position of the image.
+	 * @return The image. Never {@code null}.
+	 * @throws IOException If the image could not be obtained.
+	 */
+	BufferedImage get(int index) throws IOException;
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link ImageSource} for images which are already in memory.
+ */
+public final class ListImageSource implements ImageSource {
+	private final List<BufferedImage> images;
+
+	/**
+	 * Creates a source for the given images.
+	 * <p>
+	 * Changes made to the original {@link Collection} will not be visible to
+	 * the source.
+	 *
+	 * @param images The images.
+	 */
+	public ListImageSource(Collection<BufferedImage> images) {
+		if (images == null) {
+			throw new NullPointerException("Must specify images.");
+		}
+		for (BufferedImage image : images) {
+			if (image == null) {
+				throw new NullPointerException("A null image was provided.");
+			}
+		}
+		this.images = Collections.unmodifiableList(new ArrayList<BufferedImage>(images));
+	}
+
+	@Override
+	public int size() {
+		return images.size();
+	}
+
+	@Override
+	public BufferedImage get(int index) {
+		return images.get(index);
+	}
+}
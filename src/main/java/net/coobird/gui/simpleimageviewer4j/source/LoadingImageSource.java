@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+import net.coobird.gui.simpleimageviewer4j.util.Pair;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link ImageSource} which produces images on demand, for example by
+ * decoding them from storage. The viewer obtains images from this kind of
+ * source on background threads.
+ * <p>
+ * Produced images are kept in a cache with a memory budget, and the least
+ * recently used images are dropped when it is exceeded. Concurrent requests
+ * for the same image share a single call to {@link #load(int)}.
+ * <p>
+ * Subclasses which can produce reduced-resolution images more cheaply than
+ * full ones, should override {@link #load(int, int)} and
+ * {@link #loadDimension(int)}, so that the viewer can avoid producing full
+ * images when displaying them zoomed out.
+ * <p>
+ * Subclasses which can produce parts of images should override
+ * {@link #isRegionSupported()} and {@link #loadRegion(int, Rectangle, int)},
+ * so that the viewer only needs to produce the visible parts of very large
+ * images.
+ */
+public abstract class LoadingImageSource implements ImageSource {
+	private static final long DEFAULT_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+
+	private final Cache<Pair<Integer, Integer>, BufferedImage> cache;
+	private final ConcurrentMap<Integer, Dimension> dimensions = new ConcurrentHashMap<Integer, Dimension>();
+
+	/**
+	 * Creates a source which keeps up to an eighth of the maximum heap size
+	 * worth of images.
+	 */
+	protected LoadingImageSource() {
+		this(DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates a source which keeps up to the given number of bytes worth of
+	 * images.
+	 *
+	 * @param budget Memory budget for produced images, in bytes.
+	 */
+	protected LoadingImageSource(long budget) {
+		this.cache = new Cache<Pair<Integer, Integer>, BufferedImage>(budget, ImageWeigher.INSTANCE);
+	}
+
+	/**
+	 * Produces the image at the specified position.
+	 *
+	 * @param index Zero-based position of the image.
+	 * @return The image. Never {@code null}.
+	 * @throws IOException If the image could not be produced.
+	 */
+	protected abstract BufferedImage load(int index) throws IOException;
+
+	/**
+	 * Produces the image at the specified position at reduced resolution,
+	 * where each pixel of the produced image stands for a square of
+	 * {@code subsampling} &times; {@code subsampling} pixels of the full
+	 * image.
+	 * <p>
+	 * The default implementation does not support reduced resolutions and
+	 * returns {@code null}, in which case the full image is used instead.
+	 *
+	 * @param index       Zero-based position of the image.
+	 * @param subsampling Reduction factor, a power of two greater than 1.
+	 * @return The reduced image, or {@code null} if not supported.
+	 * @throws IOException If the image could not be produced.
+	 */
+	protected BufferedImage load(int index, int subsampling) throws IOException {
+		return null;
+	}
+
+	/**
+	 * Returns the dimensions of the full image at the specified position.
+	 * <p>
+	 * The default implementation obtains the full image. Subclasses which
+	 * can determine the dimensions more cheaply should override this method.
+	 *
+	 * @param index Zero-based position of the image.
+	 * @return Dimensions of the full image.
+	 * @throws IOException If the dimensions could not be determined.
+	 */
+	protected Dimension loadDimension(int index) throws IOException {
+		BufferedImage image = get(index);
+		return new Dimension(image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Returns whether this source can produce parts of images through
+	 * {@link #loadRegion(int, Rectangle, int)}.
+	 * <p>
+	 * The default implementation returns {@code false}.
+	 *
+	 * @return {@code true} if parts of images can be produced.
+	 */
+	public boolean isRegionSupported() {
+		return false;
+	}
+
+	/**
+	 * Produces a part of the image at the specified position, optionally at
+	 * reduced resolution.
+	 * <p>
+	 * The default implementation throws an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @param index       Zero-based position of the image.
+	 * @param region      Part of the full image to produce.
+	 * @param subsampling Reduction factor, a power of two.
+	 * @return The part of the image. Never {@code null}.
+	 * @throws IOException If the image could not be produced.
+	 */
+	protected BufferedImage loadRegion(int index, Rectangle region, int subsampling) throws IOException {
+		throw new UnsupportedOperationException("Regions are not supported by " + getClass().getName());
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+	}
+
+	@Override
+	public BufferedImage get(int index) throws IOException {
+		return get(index, 1);
+	}
+
+	/**
+	 * Returns the image at the specified position, reduced by up to the given
+	 * factor. An image with a higher resolution than requested is returned
+	 * if one is already at hand, or if reduced images are not supported.
+	 *
+	 * @param index       Zero-based position of the image.
+	 * @param subsampling Reduction factor, a power of two.
+	 * @return The image. Never {@code null}.
+	 * @throws IOException If the image could not be obtained.
+	 */
+	public BufferedImage get(final int index, int subsampling) throws IOException {
+		checkIndex(index);
+		if (subsampling < 1 || Integer.bitCount(subsampling) != 1) {
+			throw new IllegalArgumentException("Subsampling must be a power of two.");
+		}
+
+		for (int s = subsampling; s >= 1; s /= 2) {
+			BufferedImage image = cache.get(new Pair<Integer, Integer>(index, s));
+			if (image != null) {
+				return image;
+			}
+		}
+
+		if (subsampling > 1) {
+			final int s = subsampling;
+			BufferedImage image = produce(index, s, new Callable<BufferedImage>() {
+				@Override
+				public BufferedImage call() throws Exception {
+					return load(index, s);
+				}
+			});
+			if (image != null) {
+				return image;
+			}
+		}
+
+		BufferedImage image = produce(index, 1, new Callable<BufferedImage>() {
+			@Override
+			public BufferedImage call() throws Exception {
+				return load(index);
+			}
+		});
+		if (image == null) {
+			throw new IOException("No image was produced for index " + index);
+		}
+		dimensions.putIfAbsent(index, new Dimension(image.getWidth(), image.getHeight()));
+		return image;
+	}
+
+	/**
+	 * Returns the dimensions of the full image at the specified position,
+	 * without necessarily producing the full image.
+	 *
+	 * @param index Zero-based position of the image.
+	 * @return Dimensions of the full image.
+	 * @throws IOException If the dimensions could not be determined.
+	 */
+	public Dimension getDimension(int index) throws IOException {
+		checkIndex(index);
+
+		Dimension dimension = dimensions.get(index);
+		if (dimension == null) {
+			dimension = loadDimension(index);
+			dimensions.putIfAbsent(index, dimension);
+		}
+		return new Dimension(dimension);
+	}
+
+	/**
+	 * Returns a part of the image at the specified position, optionally at
+	 * reduced resolution. Parts of images are not cached by this source.
+	 *
+	 * @param index       Zero-based position of the image.
+	 * @param region      Part of the full image to produce.
+	 * @param subsampling Reduction factor, a power of two.
+	 * @return The part of the image. Never {@code null}.
+	 * @throws IOException If the image could not be obtained.
+	 * @throws UnsupportedOperationException If {@link #isRegionSupported()}
+	 *                                       returns {@code false}.
+	 */
+	public BufferedImage getRegion(int index, Rectangle region, int subsampling) throws IOException {
+		checkIndex(index);
+		if (region == null) {
+			throw new NullPointerException("Region must not be null.");
+		}
+		if (region.isEmpty()) {
+			throw new IllegalArgumentException("Region must not be empty.");
+		}
+		if (subsampling < 1 || Integer.bitCount(subsampling) != 1) {
+			throw new IllegalArgumentException("Subsampling must be a power of two.");
+		}
+
+		BufferedImage image = loadRegion(index, new Rectangle(region), subsampling);
+		if (image == null) {
+			throw new IOException("No image was produced for index " + index);
+		}
+		return image;
+	}
+
+	private BufferedImage produce(int index, int subsampling, Callable<BufferedImage> loader) throws IOException {
+		try {
+			return cache.computeIfAbsent(new Pair<Integer, Integer>(index, subsampling), loader);
+
+		} catch (IOException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Could not load image at index " + index, e);
+		}
+	}
+}
@@ -20,35 +20,417 @@
  * THE SOFTWARE.
  */
 
+
 package net.coobird.gui.simpleimageviewer4j.util;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * A thread-safe cache whose values are computed on demand.
+ * <p>
+ * Reads of already computed values do not take any locks. When a value is
+ * absent, the first thread to ask for it performs the computation while
+ * other threads asking for the same key wait for that result, rather than
+ * computing it again. Computations for different keys run in parallel.
+ * <p>
+ * The cache operates in one of two modes:
+ * <ul>
+ * <li>Unbounded, where values are softly referenced and left to the garbage
+ * collector to reclaim. Entries whose values have been reclaimed are
+ * removed from the cache.</li>
+ * <li>Bounded, where values are strongly referenced and the least recently
+ * used entries are evicted once the total weight of the values exceeds
+ * the budget given at construction.</li>
+ * </ul>
+ */
 public class Cache<K, V> {
-	private final Object lock = new Object();
-	private final Map<K, SoftReference<V>> cache = new HashMap<K, SoftReference<V>>();
+	private static final long UNBOUNDED = -1;
+
+	private final ConcurrentMap<K, Entry<K, V>> cache = new ConcurrentHashMap<K, Entry<K, V>>();
+	private final ConcurrentMap<K, Future<V>> inFlight = new ConcurrentHashMap<K, Future<V>>();
+	private final ReferenceQueue<V> clearedValues = new ReferenceQueue<V>();
+
+	private final long maximumWeight;
+	private final Weigher<? super V> weigher;
+
+	private final AtomicLong clock = new AtomicLong();
+	private final Object evictionLock = new Object();
+	private long totalWeight;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong loadSuccessCount = new AtomicLong();
+	private final AtomicLong loadFailureCount = new AtomicLong();
+	private final AtomicLong totalLoadTime = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final AtomicLong collectedCount = new AtomicLong();
+	private final AtomicLongArray loadTimeHistogram = new AtomicLongArray(CacheStats.histogramBuckets());
+
+	private abstract static class Entry<K, V> {
+		final K key;
+		final long weight;
+		volatile long lastAccess;
+
+		Entry(K key, long weight, long lastAccess) {
+			this.key = key;
+			this.weight = weight;
+			this.lastAccess = lastAccess;
+		}
+
+		abstract V get();
+	}
+
+	private static final class StrongEntry<K, V> extends Entry<K, V> {
+		private final V value;
+
+		StrongEntry(K key, V value, long weight, long lastAccess) {
+			super(key, weight, lastAccess);
+			this.value = value;
+		}
+
+		@Override
+		V get() {
+			return value;
+		}
+	}
+
+	private static final class SoftEntry<K, V> extends Entry<K, V> {
+		private final SoftReference<V> value;
+
+		SoftEntry(K key, V value, ReferenceQueue<V> queue, long lastAccess) {
+			super(key, 0, lastAccess);
+			this.value = new EntryReference<K, V>(this, value, queue);
+		}
+
+		@Override
+		V get() {
+			return value.get();
+		}
+	}
+
+	private static final class EntryReference<K, V> extends SoftReference<V> {
+		private final SoftEntry<K, V> entry;
+
+		EntryReference(SoftEntry<K, V> entry, V value, ReferenceQueue<V> queue) {
+			super(value, queue);
+			this.entry = entry;
+		}
+	}
+
+	/**
+	 * An entry along with its last access time when eviction started.
+	 * Entries are ordered by these snapshots, since the access times
+	 * themselves may be updated by other threads during sorting.
+	 */
+	private static final class Candidate<K, V> {
+		final Entry<K, V> entry;
+		final long lastAccess;
+
+		Candidate(Entry<K, V> entry) {
+			this.entry = entry;
+			this.lastAccess = entry.lastAccess;
+		}
+	}
+
+	private static final Comparator<Candidate<?, ?>> LEAST_RECENTLY_USED_FIRST =
+			new Comparator<Candidate<?, ?>>() {
+				@Override
+				public int compare(Candidate<?, ?> c1, Candidate<?, ?> c2) {
+					long a = c1.lastAccess;
+					long b = c2.lastAccess;
+					return a < b ? -1 : (a == b ? 0 : 1);
+				}
+			};
+
+	/**
+	 * Creates an unbounded cache which holds its values through soft
+	 * references.
+	 */
+	public Cache() {
+		this.maximumWeight = UNBOUNDED;
+		this.weigher = null;
+	}
+
+	/**
+	 * Creates a cache which holds its values strongly, and evicts the least
+	 * recently used values when the total weight exceeds the given budget.
+	 *
+	 * @param maximumWeight Budget for the total weight of values.
+	 * @param weigher       Calculates the weight of each value.
+	 */
+	public Cache(long maximumWeight, Weigher<? super V> weigher) {
+		if (maximumWeight < 0) {
+			throw new IllegalArgumentException("Maximum weight must not be negative.");
+		}
+		if (weigher == null) {
+			throw new NullPointerException("Weigher must not be null.");
+		}
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+	}
+
+	private boolean isBounded() {
+		return maximumWeight != UNBOUNDED;
+	}
+
+	/**
+	 * Returns the cached value for the given key, or {@code null} if the
+	 * value has not been computed yet or has been reclaimed.
+	 * This method never runs a computation.
+	 */
+	public V get(K key) {
+		V value = getIfPresent(key);
+		if (value != null) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the cached value for the given key, or {@code null}, like
+	 * {@link #get(Object)}, but without counting a hit or miss. This is for
+	 * probing whether a value happens to be available, such as on every
+	 * repaint, which would otherwise make the hit rate meaningless.
+	 */
+	public V getIfPresent(K key) {
+		Entry<K, V> entry = cache.get(key);
+		if (entry == null) {
+			return null;
+		}
+
+		V value = entry.get();
+		if (value != null) {
+			entry.lastAccess = clock.incrementAndGet();
+		}
+		return value;
+	}
+
+	/**
+	 * Stores a value which was computed outside of the cache.
+	 * <p>
+	 * A value which alone weighs more than the maximum weight is not stored,
+	 * and counts as evicted, rather than evicting every other value only to
+	 * be evicted itself. Any previous value for the key is removed.
+	 */
+	public void put(K key, V value) {
+		removeClearedEntries();
+
+		Entry<K, V> entry;
+		if (isBounded()) {
+			long weight = weigher.weigh(value);
+			if (weight > maximumWeight) {
+				remove(key);
+				evictionCount.incrementAndGet();
+				return;
+			}
+			entry = new StrongEntry<K, V>(key, value, weight, clock.incrementAndGet());
+		} else {
+			entry = new SoftEntry<K, V>(key, value, clearedValues, clock.incrementAndGet());
+		}
 
-	private V computeAndSet(K key, Callable<V> computation) throws Exception {
-		V result = computation.call();
-		cache.put(key, new SoftReference<V>(result));
-		return result;
+		Entry<K, V> previous = cache.put(key, entry);
+
+		if (isBounded()) {
+			synchronized (evictionLock) {
+				totalWeight += entry.weight;
+				if (previous != null) {
+					totalWeight -= previous.weight;
+				}
+				evict();
+			}
+		}
 	}
 
-	public V computeIfAbsent(K key, Callable<V> computation) throws Exception {
-		// While this is correct, we're effectively making processing single-threaded.
-		synchronized (lock) {
-			if (!cache.containsKey(key)) {
-				return computeAndSet(key, computation);
+	/**
+	 * Removes the value for the given key, if any. A computation of the
+	 * value which is in progress is not affected.
+	 */
+	public void remove(K key) {
+		Entry<K, V> entry = cache.remove(key);
+		if (entry != null && isBounded()) {
+			synchronized (evictionLock) {
+				totalWeight -= entry.weight;
 			}
+		}
+	}
+
+	/**
+	 * Removes all values from the cache. Statistics are kept.
+	 */
+	public void clear() {
+		for (K key : cache.keySet()) {
+			remove(key);
+		}
+		removeClearedEntries();
+	}
+
+	/**
+	 * Returns the number of entries in the cache.
+	 */
+	public int size() {
+		removeClearedEntries();
+		return cache.size();
+	}
+
+	/**
+	 * Returns the total weight of the values in the cache.
+	 * Always {@code 0} for an unbounded cache.
+	 */
+	public long weight() {
+		synchronized (evictionLock) {
+			return totalWeight;
+		}
+	}
+
+	/**
+	 * Returns the budget for the total weight of values, or {@code -1} if
+	 * this cache is unbounded.
+	 */
+	public long maximumWeight() {
+		return maximumWeight;
+	}
 
-			V value = cache.get(key).get();
-			if (value == null) {
-				return computeAndSet(key, computation);
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 */
+	public CacheStats stats() {
+		long[] histogram = new long[loadTimeHistogram.length()];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = loadTimeHistogram.get(i);
+		}
+
+		return new CacheStats(
+				hitCount.get(),
+				missCount.get(),
+				loadSuccessCount.get(),
+				loadFailureCount.get(),
+				totalLoadTime.get(),
+				evictionCount.get(),
+				collectedCount.get(),
+				size(),
+				weight(),
+				histogram
+		);
+	}
+
+	private void evict() {
+		if (totalWeight <= maximumWeight) {
+			return;
+		}
+
+		List<Candidate<K, V>> candidates = new ArrayList<Candidate<K, V>>(cache.size());
+		for (Entry<K, V> entry : cache.values()) {
+			candidates.add(new Candidate<K, V>(entry));
+		}
+		Collections.sort(candidates, LEAST_RECENTLY_USED_FIRST);
+
+		for (Candidate<K, V> candidate : candidates) {
+			if (totalWeight <= maximumWeight) {
+				break;
+			}
+			Entry<K, V> entry = candidate.entry;
+			if (cache.remove(entry.key, entry)) {
+				totalWeight -= entry.weight;
+				evictionCount.incrementAndGet();
 			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void removeClearedEntries() {
+		Reference<? extends V> ref;
+		while ((ref = clearedValues.poll()) != null) {
+			SoftEntry<K, V> entry = ((EntryReference<K, V>) ref).entry;
+			if (cache.remove(entry.key, entry)) {
+				collectedCount.incrementAndGet();
+			}
+		}
+	}
+
+	public V computeIfAbsent(final K key, final Callable<V> computation) throws Exception {
+		V value = get(key);
+		if (value != null) {
 			return value;
 		}
+
+		FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+			@Override
+			public V call() throws Exception {
+				// The value may have been stored after our first look, but
+				// before this task was registered as in-flight.
+				V value = getIfPresent(key);
+				if (value == null) {
+					value = load(computation);
+					if (value != null) {
+						put(key, value);
+					}
+				}
+				return value;
+			}
+		});
+
+		Future<V> existing = inFlight.putIfAbsent(key, task);
+		if (existing != null) {
+			return await(existing);
+		}
+
+		try {
+			task.run();
+			return await(task);
+
+		} finally {
+			inFlight.remove(key, task);
+		}
+	}
+
+	private V load(Callable<V> computation) throws Exception {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			V value = computation.call();
+			success = true;
+			return value;
+
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			totalLoadTime.addAndGet(elapsed);
+			loadTimeHistogram.incrementAndGet(CacheStats.histogramBucket(elapsed));
+			if (success) {
+				loadSuccessCount.incrementAndGet();
+			} else {
+				loadFailureCount.incrementAndGet();
+			}
+		}
+	}
+
+	private static <V> V await(Future<V> future) throws Exception {
+		try {
+			return future.get();
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
 	}
 }
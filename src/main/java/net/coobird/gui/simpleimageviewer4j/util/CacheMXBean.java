@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+/**
+ * Management interface exposing the statistics of a {@link Cache} through
+ * JMX, registered by {@link CacheMonitor}.
+ */
+public interface CacheMXBean {
+	long getHitCount();
+
+	long getMissCount();
+
+	double getHitRate();
+
+	long getLoadSuccessCount();
+
+	long getLoadFailureCount();
+
+	/**
+	 * Average time spent computing a value, in milliseconds.
+	 */
+	double getAverageLoadTime();
+
+	/**
+	 * Upper bounds of the load time histogram buckets, in milliseconds.
+	 */
+	long[] getLoadTimeHistogramBounds();
+
+	long[] getLoadTimeHistogram();
+
+	long getEvictionCount();
+
+	long getCollectedCount();
+
+	int getSize();
+
+	long getWeight();
+
+	/**
+	 * Budget for the total weight, or {@code -1} if the cache is unbounded.
+	 */
+	long getMaximumWeight();
+}
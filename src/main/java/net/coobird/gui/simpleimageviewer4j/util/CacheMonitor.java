@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes a {@link Cache} as a JMX MBean, so that it can be watched from
+ * tools such as JConsole or VisualVM.
+ */
+public final class CacheMonitor implements CacheMXBean {
+	private static final String DOMAIN = "net.coobird.gui.simpleimageviewer4j";
+
+	private final Cache<?, ?> cache;
+	private ObjectName name;
+
+	public CacheMonitor(Cache<?, ?> cache) {
+		if (cache == null) {
+			throw new NullPointerException("Cache must not be null.");
+		}
+		this.cache = cache;
+	}
+
+	/**
+	 * Registers this monitor with the platform MBean server under the given
+	 * name. Registration failures are reported as an
+	 * {@link IllegalStateException}.
+	 *
+	 * @param cacheName Value of the {@code name} key of the MBean name.
+	 */
+	public synchronized void register(String cacheName) {
+		if (name != null) {
+			throw new IllegalStateException("Already registered as " + name);
+		}
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=Cache,name=" + ObjectName.quote(cacheName));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			name = objectName;
+
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register cache MBean.", e);
+		}
+	}
+
+	/**
+	 * Unregisters this monitor, if it has been registered.
+	 */
+	public synchronized void unregister() {
+		if (name == null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not unregister cache MBean.", e);
+
+		} finally {
+			name = null;
+		}
+	}
+
+	@Override
+	public long getHitCount() {
+		return cache.stats().hitCount();
+	}
+
+	@Override
+	public long getMissCount() {
+		return cache.stats().missCount();
+	}
+
+	@Override
+	public double getHitRate() {
+		return cache.stats().hitRate();
+	}
+
+	@Override
+	public long getLoadSuccessCount() {
+		return cache.stats().loadSuccessCount();
+	}
+
+	@Override
+	public long getLoadFailureCount() {
+		return cache.stats().loadFailureCount();
+	}
+
+	@Override
+	public double getAverageLoadTime() {
+		return cache.stats().averageLoadTime() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public long[] getLoadTimeHistogramBounds() {
+		return CacheStats.loadTimeHistogramBounds();
+	}
+
+	@Override
+	public long[] getLoadTimeHistogram() {
+		return cache.stats().loadTimeHistogram();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return cache.stats().evictionCount();
+	}
+
+	@Override
+	public long getCollectedCount() {
+		return cache.stats().collectedCount();
+	}
+
+	@Override
+	public int getSize() {
+		return cache.size();
+	}
+
+	@Override
+	public long getWeight() {
+		return cache.weight();
+	}
+
+	@Override
+	public long getMaximumWeight() {
+		return cache.maximumWeight();
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the statistics of a {@link Cache}.
+ */
+public final class CacheStats {
+	/**
+	 * Upper bounds, in milliseconds, of the buckets of the load time
+	 * histogram. The last bucket of the histogram has no upper bound.
+	 */
+	private static final long[] LOAD_TIME_BUCKETS = new long[] {
+			1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000
+	};
+
+	private final long hitCount;
+	private final long missCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTime;
+	private final long evictionCount;
+	private final long collectedCount;
+	private final int size;
+	private final long weight;
+	private final long[] loadTimeHistogram;
+
+	CacheStats(
+			long hitCount,
+			long missCount,
+			long loadSuccessCount,
+			long loadFailureCount,
+			long totalLoadTime,
+			long evictionCount,
+			long collectedCount,
+			int size,
+			long weight,
+			long[] loadTimeHistogram
+	) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.evictionCount = evictionCount;
+		this.collectedCount = collectedCount;
+		this.size = size;
+		this.weight = weight;
+		this.loadTimeHistogram = loadTimeHistogram;
+	}
+
+	static int histogramBuckets() {
+		return LOAD_TIME_BUCKETS.length + 1;
+	}
+
+	static int histogramBucket(long loadTimeNanos) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+		for (int i = 0; i < LOAD_TIME_BUCKETS.length; i++) {
+			if (millis < LOAD_TIME_BUCKETS[i]) {
+				return i;
+			}
+		}
+		return LOAD_TIME_BUCKETS.length;
+	}
+
+	/**
+	 * Returns the upper bounds, in milliseconds, of the buckets returned by
+	 * {@link #loadTimeHistogram()}. The last bucket has no upper bound, so
+	 * there is one less bound than there are buckets.
+	 */
+	public static long[] loadTimeHistogramBounds() {
+		return LOAD_TIME_BUCKETS.clone();
+	}
+
+	public long hitCount() {
+		return hitCount;
+	}
+
+	public long missCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the ratio of lookups which were hits, or {@code 1.0} if there
+	 * have been no lookups.
+	 */
+	public double hitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 1.0 : (double) hitCount / requests;
+	}
+
+	public long loadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	public long loadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * Returns the total time spent computing values, in nanoseconds.
+	 */
+	public long totalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * Returns the average time spent computing a value, in nanoseconds.
+	 */
+	public double averageLoadTime() {
+		long loads = loadSuccessCount + loadFailureCount;
+		return loads == 0 ? 0.0 : (double) totalLoadTime / loads;
+	}
+
+	/**
+	 * Returns the number of computations which took time falling in each of
+	 * the buckets given by {@link #loadTimeHistogramBounds()}.
+	 */
+	public long[] loadTimeHistogram() {
+		return loadTimeHistogram.clone();
+	}
+
+	/**
+	 * Returns the number of entries evicted to stay within the budget.
+	 */
+	public long evictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Returns the number of entries removed because their values were
+	 * reclaimed by the garbage collector.
+	 */
+	public long collectedCount() {
+		return collectedCount;
+	}
+
+	/**
+	 * Returns the number of entries in the cache.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the total weight of the values in the cache.
+	 */
+	public long weight() {
+		return weight;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{" +
+				"hitCount=" + hitCount +
+				", missCount=" + missCount +
+				", loadSuccessCount=" + loadSuccessCount +
+				", loadFailureCount=" + loadFailureCount +
+				", totalLoadTime=" + totalLoadTime +
+				", evictionCount=" + evictionCount +
+				", collectedCount=" + collectedCount +
+				", size=" + size +
+				", weight=" + weight +
+				'}';
+	}
+}
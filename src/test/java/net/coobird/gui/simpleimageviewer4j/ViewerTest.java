@@ -35,6 +35,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
 import org.junit.Test;
 
 public class ViewerTest {
@@ -317,4 +319,52 @@ public class ViewerTest {
 		// then
 		assertEquals(title, extractTitle(viewer));
 	}
+
+	@Test(expected=NullPointerException.class)
+	public void constructorArgumentNullImageSource() {
+		// given
+		ImageSource images = null;
+
+		// when, then
+		new Viewer(images);
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void constructorArgumentEmptyImageSource() {
+		// given
+		ImageSource images = new ListImageSource(Collections.<BufferedImage>emptyList());
+
+		// when, then
+		new Viewer(images);
+	}
+
+	@Test
+	public void constructorArgumentImageSourceIsNotLoaded() {
+		// given
+		ImageSource images = new ImageSource() {
+			public int size() {
+				return 2000;
+			}
+
+			public BufferedImage get(int index) {
+				throw new AssertionError("Images should not be loaded by the constructor.");
+			}
+		};
+
+		// when, then
+		new Viewer(images);
+	}
+
+	@Test
+	public void constructorWithTitleIsSetForImageSource() throws Exception {
+		// given
+		String title = "My title";
+		BufferedImage img = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+		// when
+		Viewer viewer = new Viewer(title, new ListImageSource(Collections.singletonList(img)));
+
+		// then
+		assertEquals(title, extractTitle(viewer));
+	}
 }
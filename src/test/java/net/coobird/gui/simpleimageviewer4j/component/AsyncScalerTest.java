@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncScalerTest {
+
+	/**
+	 * Waits for events which were already queued on the EDT to be handled.
+	 */
+	private static void flushEdt() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+	}
+
+	@Test
+	public void supersededRequestDoesNotCallBack() throws Exception {
+		// given
+		final BufferedImage first = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		final BufferedImage second = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		final AtomicInteger callbacks = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AsyncScaler scaler = new AsyncScaler(new Cache<ScaleKey, BufferedImage>(), new Runnable() {
+			@Override
+			public void run() {
+				callbacks.incrementAndGet();
+				latch.countDown();
+			}
+		});
+
+		// when
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				assertNull(scaler.request(first, 0.3, 120, 90));
+				assertNull(scaler.request(second, 0.3, 120, 90));
+			}
+		});
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+		// Give a first request which had already started time to finish.
+		Thread.sleep(200);
+		flushEdt();
+
+		// then
+		assertEquals(1, callbacks.get());
+		assertNotNull(scaler.getIfScaled(second, 0.3));
+		assertNull(scaler.getIfScaled(first, 0.3));
+	}
+
+	@Test
+	public void repeatedRequestIsNotScheduledAgain() throws Exception {
+		// given
+		final BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		final AtomicInteger callbacks = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AsyncScaler scaler = new AsyncScaler(new Cache<ScaleKey, BufferedImage>(), new Runnable() {
+			@Override
+			public void run() {
+				callbacks.incrementAndGet();
+				latch.countDown();
+			}
+		});
+
+		// when
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				scaler.request(image, 0.3, 120, 90);
+				scaler.request(image, 0.3, 120, 90);
+			}
+		});
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		flushEdt();
+
+		// then
+		assertEquals(1, callbacks.get());
+	}
+
+	/**
+	 * A source which records the images requested from it, and holds back
+	 * the first request until it is released.
+	 */
+	private static final class RecordingSource implements ImageSource {
+		final Set<Integer> requested = Collections.synchronizedSet(new HashSet<Integer>());
+		final CountDownLatch firstStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public int size() {
+			return 10;
+		}
+
+		@Override
+		public BufferedImage get(int index) throws IOException {
+			requested.add(index);
+			firstStarted.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new IOException(e.toString());
+			}
+			return new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+		}
+	}
+
+	private static final ImageLoader.Callback IGNORED = new ImageLoader.Callback() {
+		@Override
+		public void loaded(int index, LoadedImage image) {
+		}
+
+		@Override
+		public void failed(int index, IOException e) {
+		}
+	};
+
+	private static final Runnable NOTHING = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	@Test
+	public void prefetchIsCancelledByLaterPrefetch() throws Exception {
+		// given
+		RecordingSource source = new RecordingSource();
+		ImageLoader loader = new ImageLoader(source, IGNORED);
+		AsyncScaler scaler = new AsyncScaler(new Cache<ScaleKey, BufferedImage>(), NOTHING);
+		scaler.prefetch(loader, Arrays.asList(1, 2, 3), 0.5);
+		assertTrue(source.firstStarted.await(5, TimeUnit.SECONDS));
+
+		// when
+		scaler.prefetch(loader, Arrays.asList(7), 0.5);
+		source.release.countDown();
+
+		// then
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!source.requested.contains(7) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(new HashSet<Integer>(Arrays.asList(1, 7)), source.requested);
+	}
+
+	@Test
+	public void prefetchIsCancelledByClear() throws Exception {
+		// given
+		RecordingSource source = new RecordingSource();
+		ImageLoader loader = new ImageLoader(source, IGNORED);
+		AsyncScaler scaler = new AsyncScaler(new Cache<ScaleKey, BufferedImage>(), NOTHING);
+		scaler.prefetch(loader, Arrays.asList(1, 2, 3), 0.5);
+		assertTrue(source.firstStarted.await(5, TimeUnit.SECONDS));
+
+		// when
+		scaler.clear();
+		source.release.countDown();
+		Thread.sleep(200);
+
+		// then
+		assertEquals(Collections.singleton(1), source.requested);
+	}
+
+	@Test
+	public void prefetchIsSkippedWhenNotZoomedOut() throws Exception {
+		// given
+		RecordingSource source = new RecordingSource();
+		source.release.countDown();
+		ImageLoader loader = new ImageLoader(source, IGNORED);
+		AsyncScaler scaler = new AsyncScaler(new Cache<ScaleKey, BufferedImage>(), NOTHING);
+
+		// when
+		scaler.prefetch(loader, Arrays.asList(1, 2, 3), 1.0);
+		scaler.prefetch(loader, Arrays.asList(1, 2, 3), 2.0);
+		Thread.sleep(200);
+
+		// then
+		assertTrue(source.requested.isEmpty());
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DisplayPanelTest {
+
+	private static DisplayPanel twoImages() {
+		return new DisplayPanel(Arrays.asList(
+				new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB),
+				new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB)
+		));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void showNegativeIndex() {
+		// given, when, then
+		twoImages().show(-1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void showIndexPastLastImage() {
+		// given, when, then
+		twoImages().show(2);
+	}
+
+	@Test
+	public void burstOfNavigationOnlyLoadsFinalImage() throws Exception {
+		// given
+		final Set<Integer> requested = Collections.synchronizedSet(new HashSet<Integer>());
+		final CountDownLatch finalImageRequested = new CountDownLatch(1);
+		final ImageSource images = new ImageSource() {
+			@Override
+			public int size() {
+				return 5;
+			}
+
+			@Override
+			public BufferedImage get(int index) {
+				requested.add(index);
+				if (index == 4) {
+					finalImageRequested.countDown();
+				}
+				return new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+			}
+		};
+		final AtomicReference<DisplayPanel> panel = new AtomicReference<DisplayPanel>();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				panel.set(new DisplayPanel(images));
+				panel.get().setPrefetchWindow(0);
+			}
+		});
+
+		// when
+		for (int i = 1; i <= 4; i++) {
+			final int index = i;
+			SwingUtilities.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+					panel.get().show(index);
+				}
+			});
+			// Apart enough for each load to start, were it not deferred,
+			// but well within the navigation delay.
+			Thread.sleep(10);
+		}
+
+		// then
+		assertTrue(finalImageRequested.await(5, TimeUnit.SECONDS));
+		assertFalse(requested.contains(2));
+		assertFalse(requested.contains(3));
+		assertEquals(4, panel.get().current());
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ImageCacheTest {
+
+	@Test
+	public void sharedCacheIsSingleton() {
+		// given, when, then
+		assertSame(ImageCache.getShared(), ImageCache.getShared());
+	}
+
+	@Test
+	public void renderersSharingCacheReuseRenditions() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+		ImageSource source = new ListImageSource(Arrays.asList(img));
+		ImageCache cache = new ImageCache();
+
+		// when
+		new ImageRenderer(source, cache).render(0, 0.5);
+		new ImageRenderer(source, cache).render(0, 0.5);
+
+		// then
+		assertEquals(1, cache.getStats().size());
+		assertEquals(1, cache.getStats().loadSuccessCount());
+	}
+
+	@Test
+	public void renderersWithOwnCachesDoNotShare() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+		ImageSource source = new ListImageSource(Arrays.asList(img));
+		ImageCache cache = new ImageCache();
+
+		// when
+		new ImageRenderer(source, cache).render(0, 0.5);
+		new ImageRenderer(source).render(0, 0.5);
+
+		// then
+		assertEquals(1, cache.getStats().loadSuccessCount());
+	}
+
+	@Test
+	public void clearRemovesRenditions() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+		ImageCache cache = new ImageCache();
+		new ImageRenderer(new ListImageSource(Arrays.asList(img)), cache).render(0, 0.5);
+
+		// when
+		cache.clear();
+
+		// then
+		assertEquals(0, cache.getStats().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeBudgetIsRejected() {
+		// given, when, then
+		new ImageCache(-1);
+	}
+
+	private static int registeredMonitors() throws Exception {
+		return ManagementFactory.getPlatformMBeanServer().queryNames(
+				new ObjectName("net.coobird.gui.simpleimageviewer4j:type=Cache,*"), null
+		).size();
+	}
+
+	@Test
+	public void monitorIsRegisteredOnceWhileAcquired() throws Exception {
+		// given
+		ImageCache cache = new ImageCache();
+		int before = registeredMonitors();
+
+		// when
+		cache.acquireMonitor();
+		cache.acquireMonitor();
+		int whileShared = registeredMonitors();
+		cache.releaseMonitor();
+		int afterFirstRelease = registeredMonitors();
+		cache.releaseMonitor();
+
+		// then
+		assertEquals(before + 1, whileShared);
+		assertEquals(before + 1, afterFirstRelease);
+		assertEquals(before, registeredMonitors());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void releaseWithoutAcquireIsRejected() {
+		// given, when, then
+		new ImageCache().releaseMonitor();
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImageConverterTest {
+
+	/**
+	 * A screen whose formats are {@code TYPE_INT_RGB} for opaque images, and
+	 * {@code TYPE_INT_ARGB_PRE} for translucent ones.
+	 */
+	private static final GraphicsConfiguration SCREEN = new GraphicsConfiguration() {
+		@Override
+		public BufferedImage createCompatibleImage(int width, int height, int transparency) {
+			return new BufferedImage(
+					width, height,
+					transparency == Transparency.OPAQUE
+							? BufferedImage.TYPE_INT_RGB
+							: BufferedImage.TYPE_INT_ARGB_PRE
+			);
+		}
+
+		@Override
+		public GraphicsDevice getDevice() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ColorModel getColorModel() {
+			return ColorModel.getRGBdefault();
+		}
+
+		@Override
+		public ColorModel getColorModel(int transparency) {
+			return ColorModel.getRGBdefault();
+		}
+
+		@Override
+		public AffineTransform getDefaultTransform() {
+			return new AffineTransform();
+		}
+
+		@Override
+		public AffineTransform getNormalizingTransform() {
+			return new AffineTransform();
+		}
+
+		@Override
+		public Rectangle getBounds() {
+			return new Rectangle(0, 0, 1920, 1080);
+		}
+	};
+
+	private static BufferedImage filledImage(int width, int height, int type, Color color) {
+		BufferedImage img = new BufferedImage(width, height, type);
+		Graphics g = img.getGraphics();
+		g.setColor(color);
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+		return img;
+	}
+
+	@Test
+	public void imagesInScreenFormatsAreCompatible() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), SCREEN);
+
+		// when, then
+		assertTrue(converter.isCompatible(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB)));
+		assertTrue(converter.isCompatible(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB_PRE)));
+		assertFalse(converter.isCompatible(new BufferedImage(10, 10, BufferedImage.TYPE_3BYTE_BGR)));
+		assertFalse(converter.isCompatible(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB)));
+	}
+
+	@Test
+	public void withoutScreenEveryImageIsCompatible() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), null);
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_3BYTE_BGR);
+
+		// when, then
+		assertTrue(converter.isCompatible(img));
+		assertSame(img, converter.convert(img));
+	}
+
+	@Test
+	public void compatibleImageIsNotCopied() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), SCREEN);
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when, then
+		assertSame(img, converter.convert(img));
+		assertSame(img, converter.getIfConverted(img));
+	}
+
+	@Test
+	public void opaqueImageWithAlphaIsCopiedAsOpaque() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), SCREEN);
+		BufferedImage img = filledImage(10, 10, BufferedImage.TYPE_INT_ARGB, Color.red);
+
+		// when
+		BufferedImage copy = converter.convert(img);
+
+		// then
+		assertEquals(BufferedImage.TYPE_INT_RGB, copy.getType());
+		assertEquals(img.getRGB(5, 5), copy.getRGB(5, 5));
+	}
+
+	@Test
+	public void translucentImageIsCopiedAsTranslucent() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), SCREEN);
+		BufferedImage img = filledImage(10, 10, BufferedImage.TYPE_4BYTE_ABGR, Color.red);
+		img.setRGB(0, 0, 0x00000000);
+
+		// when
+		BufferedImage copy = converter.convert(img);
+
+		// then
+		assertEquals(BufferedImage.TYPE_INT_ARGB_PRE, copy.getType());
+		assertEquals(0, copy.getRGB(0, 0) >>> 24);
+	}
+
+	@Test
+	public void copyIsReusedThroughGetIfConverted() {
+		// given
+		ImageConverter converter = new ImageConverter(new Cache<ScaleKey, BufferedImage>(), SCREEN);
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_3BYTE_BGR);
+		assertNull(converter.getIfConverted(img));
+
+		// when
+		BufferedImage copy = converter.convert(img);
+
+		// then
+		assertNotSame(img, copy);
+		assertSame(copy, converter.getIfConverted(img));
+		assertSame(copy, converter.convert(img));
+	}
+
+	@Test
+	public void largeCopyDoesNotEvictOtherRenditions() {
+		// given
+		Cache<ScaleKey, BufferedImage> cache =
+				new Cache<ScaleKey, BufferedImage>(160000, ImageWeigher.INSTANCE);
+		ImageConverter converter = new ImageConverter(cache, SCREEN);
+
+		BufferedImage other = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+		BufferedImage rendition = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+		cache.put(ScaleKey.of(other, 0.5), rendition);
+
+		// A copy would weigh 144400 bytes, which together with the rendition
+		// exceeds the budget.
+		BufferedImage img = new BufferedImage(190, 190, BufferedImage.TYPE_3BYTE_BGR);
+
+		// when
+		BufferedImage converted = converter.convert(img);
+
+		// then
+		assertTrue(converter.isDrawnAsIs(img));
+		assertSame(img, converted);
+		assertSame(img, converter.getIfConverted(img));
+		assertSame(rendition, cache.getIfPresent(ScaleKey.of(other, 0.5)));
+	}
+
+	@Test
+	public void smallCopyIsCachedInBoundedCache() {
+		// given
+		Cache<ScaleKey, BufferedImage> cache =
+				new Cache<ScaleKey, BufferedImage>(160000, ImageWeigher.INSTANCE);
+		ImageConverter converter = new ImageConverter(cache, SCREEN);
+		BufferedImage img = new BufferedImage(100, 100, BufferedImage.TYPE_3BYTE_BGR);
+
+		// when
+		BufferedImage converted = converter.convert(img);
+
+		// then
+		assertFalse(converter.isDrawnAsIs(img));
+		assertNotSame(img, converted);
+		assertSame(converted, converter.getIfConverted(img));
+		assertEquals(40000, cache.weight());
+	}
+}
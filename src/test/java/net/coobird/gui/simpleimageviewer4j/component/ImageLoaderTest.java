@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImageLoaderTest {
+
+	private static final ImageLoader.Callback IGNORED = new ImageLoader.Callback() {
+		@Override
+		public void loaded(int index, LoadedImage image) {
+		}
+
+		@Override
+		public void failed(int index, IOException e) {
+		}
+	};
+
+	@Test
+	public void imagesInMemoryAreLoadedImmediately() {
+		// given
+		ImageSource images = new ListImageSource(Arrays.asList(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB)));
+
+		// when
+		ImageLoader loader = new ImageLoader(images, IGNORED);
+
+		// then
+		assertFalse(loader.isAsynchronous());
+	}
+
+	@Test
+	public void imagesFromOtherSourcesAreLoadedInBackground() {
+		// given
+		ImageSource images = new ImageSource() {
+			@Override
+			public int size() {
+				return 1;
+			}
+
+			@Override
+			public BufferedImage get(int index) {
+				return new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+			}
+		};
+
+		// when
+		ImageLoader loader = new ImageLoader(images, IGNORED);
+
+		// then
+		assertTrue(loader.isAsynchronous());
+	}
+
+	@Test
+	public void runtimeExceptionIsReportedAsFailure() throws Exception {
+		// given
+		final IllegalArgumentException exception = new IllegalArgumentException("corrupt");
+		ImageSource images = new ImageSource() {
+			@Override
+			public int size() {
+				return 1;
+			}
+
+			@Override
+			public BufferedImage get(int index) {
+				throw exception;
+			}
+		};
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+		final ImageLoader loader = new ImageLoader(images, new ImageLoader.Callback() {
+			@Override
+			public void loaded(int index, LoadedImage image) {
+			}
+
+			@Override
+			public void failed(int index, IOException e) {
+				failure.set(e);
+				latch.countDown();
+			}
+		});
+
+		// when
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				loader.load(0, 1.0);
+			}
+		});
+
+		// then
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertSame(exception, failure.get().getCause());
+	}
+}
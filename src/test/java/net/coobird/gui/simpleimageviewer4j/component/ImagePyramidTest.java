@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ImagePyramidTest {
+
+	@Test
+	public void levelForPowersOfTwo() {
+		// given, when, then
+		assertEquals(1.0, ImagePyramid.levelFor(1.0), 0.0);
+		assertEquals(0.5, ImagePyramid.levelFor(0.5), 0.0);
+		assertEquals(0.25, ImagePyramid.levelFor(0.25), 0.0);
+	}
+
+	@Test
+	public void levelForBetweenLevels() {
+		// given, when, then
+		assertEquals(1.0, ImagePyramid.levelFor(0.75), 0.0);
+		assertEquals(0.5, ImagePyramid.levelFor(0.3), 0.0);
+		assertEquals(0.125, ImagePyramid.levelFor(0.1), 0.0);
+	}
+
+	@Test
+	public void levelAtFullScaleIsOriginal() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		ImagePyramid pyramid = new ImagePyramid(new Cache<ScaleKey, BufferedImage>());
+
+		// when, then
+		assertSame(img, pyramid.level(img, 1.0));
+	}
+
+	@Test
+	public void levelComputesLevelsAbove() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		Cache<ScaleKey, BufferedImage> cache = new Cache<ScaleKey, BufferedImage>();
+		ImagePyramid pyramid = new ImagePyramid(cache);
+
+		// when
+		BufferedImage level = pyramid.level(img, 0.25);
+
+		// then
+		assertEquals(25, level.getWidth());
+		assertEquals(20, level.getHeight());
+		assertNotNull(cache.get(ScaleKey.of(img, 0.5)));
+	}
+
+	@Test
+	public void scaleBetweenLevelsUsesLevelAbove() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		Cache<ScaleKey, BufferedImage> cache = new Cache<ScaleKey, BufferedImage>();
+		ImagePyramid pyramid = new ImagePyramid(cache);
+
+		// when
+		BufferedImage scaled = pyramid.scale(img, 0.3, 30, 24);
+
+		// then
+		assertEquals(30, scaled.getWidth());
+		assertEquals(24, scaled.getHeight());
+		assertNotNull(cache.get(ScaleKey.of(img, 0.5)));
+		assertNull(cache.get(ScaleKey.of(img, 0.25)));
+	}
+
+	@Test
+	public void scaleBetweenLevelsIsNotCached() throws Exception {
+		// given
+		BufferedImage img = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		Cache<ScaleKey, BufferedImage> cache = new Cache<ScaleKey, BufferedImage>();
+		ImagePyramid pyramid = new ImagePyramid(cache);
+
+		// when
+		pyramid.scale(img, 0.3, 30, 24);
+		pyramid.scale(img, 0.35, 35, 28);
+
+		// then
+		assertNotNull(cache.get(ScaleKey.of(img, 0.5)));
+		assertEquals(1, cache.size());
+	}
+}
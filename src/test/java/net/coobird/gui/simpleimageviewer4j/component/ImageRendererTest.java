@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.ImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ImageRendererTest {
+
+	private static BufferedImage filled(int width, int height, Color color) {
+		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics g = img.getGraphics();
+		g.setColor(color);
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+		return img;
+	}
+
+	private static ImageRenderer rendererFor(BufferedImage... images) {
+		return new ImageRenderer(new ListImageSource(Arrays.asList(images)));
+	}
+
+	@Test
+	public void renderIsMagnifiedSize() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(filled(100, 80, Color.red));
+
+		// when
+		BufferedImage half = renderer.render(0, 0.5);
+		BufferedImage twice = renderer.render(0, 2.0);
+		BufferedImage between = renderer.render(0, 0.3);
+
+		// then
+		assertEquals(50, half.getWidth());
+		assertEquals(40, half.getHeight());
+		assertEquals(200, twice.getWidth());
+		assertEquals(160, twice.getHeight());
+		assertEquals(30, between.getWidth());
+		assertEquals(24, between.getHeight());
+	}
+
+	@Test
+	public void renderDrawsImage() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(filled(100, 80, Color.red));
+
+		// when
+		BufferedImage img = renderer.render(0, 2.0);
+
+		// then
+		assertEquals(Color.red.getRGB(), img.getRGB(0, 0));
+		assertEquals(Color.red.getRGB(), img.getRGB(199, 159));
+	}
+
+	@Test
+	public void renderCentersImageInView() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(filled(100, 80, Color.red));
+
+		// when
+		BufferedImage img = renderer.render(0, 1.0, 300, 200);
+
+		// then
+		assertEquals(300, img.getWidth());
+		assertEquals(200, img.getHeight());
+		assertEquals(Color.red.getRGB(), img.getRGB(100, 60));
+		assertEquals(Color.red.getRGB(), img.getRGB(199, 139));
+		assertNotEquals(Color.red.getRGB(), img.getRGB(99, 60));
+		assertNotEquals(Color.red.getRGB(), img.getRGB(100, 140));
+	}
+
+	@Test
+	public void renderDrawsBackgroundBehindTransparency() throws IOException {
+		// given
+		BufferedImage transparent = new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		ImageRenderer renderer = rendererFor(transparent);
+
+		// when
+		BufferedImage img = renderer.render(0, 1.0);
+
+		// then
+		assertEquals(Color.lightGray.getRGB(), img.getRGB(0, 0));
+		assertEquals(Color.gray.getRGB(), img.getRGB(10, 0));
+	}
+
+	@Test
+	public void renderAllKeepsOrder() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(
+				filled(100, 80, Color.red),
+				filled(60, 40, Color.green),
+				filled(20, 10, Color.blue)
+		);
+
+		// when
+		List<BufferedImage> images = renderer.renderAll(0.5);
+
+		// then
+		assertEquals(3, images.size());
+		assertEquals(50, images.get(0).getWidth());
+		assertEquals(30, images.get(1).getWidth());
+		assertEquals(10, images.get(2).getWidth());
+		assertEquals(Color.blue.getRGB(), images.get(2).getRGB(5, 2));
+	}
+
+	@Test
+	public void contactSheetHasCellsInRows() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(
+				filled(100, 80, Color.red),
+				filled(60, 40, Color.green),
+				filled(400, 400, Color.blue)
+		);
+
+		// when
+		BufferedImage sheet = renderer.renderContactSheet(2, 100, 100);
+
+		// then
+		assertEquals(200, sheet.getWidth());
+		assertEquals(200, sheet.getHeight());
+		assertEquals(Color.red.getRGB(), sheet.getRGB(50, 50));
+		assertEquals(Color.green.getRGB(), sheet.getRGB(150, 50));
+		assertEquals(Color.blue.getRGB(), sheet.getRGB(1, 101));
+		assertEquals(Color.blue.getRGB(), sheet.getRGB(98, 198));
+	}
+
+	@Test(expected = IOException.class)
+	public void renderAllPropagatesIOException() throws IOException {
+		// given
+		ImageRenderer renderer = new ImageRenderer(new ImageSource() {
+			@Override
+			public int size() {
+				return 2;
+			}
+
+			@Override
+			public BufferedImage get(int index) throws IOException {
+				if (index == 1) {
+					throw new IOException("Failed.");
+				}
+				return filled(10, 10, Color.red);
+			}
+		});
+
+		// when
+		renderer.renderAll(1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void renderRejectsNonPositiveMagnification() throws IOException {
+		// given
+		ImageRenderer renderer = rendererFor(filled(10, 10, Color.red));
+
+		// when
+		renderer.render(0, 0.0);
+	}
+}
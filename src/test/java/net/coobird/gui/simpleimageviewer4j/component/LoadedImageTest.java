@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LoadedImageTest {
+
+	private static BufferedImage filledImage(int width, int height, int type) {
+		BufferedImage img = new BufferedImage(width, height, type);
+		Graphics g = img.getGraphics();
+		g.setColor(Color.red);
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+		return img;
+	}
+
+	@Test
+	public void imageWithAlphaIsNotExaminedUntilAnalyzed() {
+		// given
+		BufferedImage img = filledImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+
+		// when
+		LoadedImage loaded = new LoadedImage(img, 100, 80);
+
+		// then
+		assertFalse(loaded.opaque);
+		assertFalse(loaded.analyzed);
+	}
+
+	@Test
+	public void analyzeExaminesPixels() {
+		// given
+		BufferedImage img = filledImage(100, 80, BufferedImage.TYPE_INT_ARGB);
+		LoadedImage loaded = new LoadedImage(img, 100, 80);
+
+		// when
+		LoadedImage analyzed = loaded.analyze();
+
+		// then
+		assertTrue(analyzed.opaque);
+		assertTrue(analyzed.analyzed);
+		assertSame(img, analyzed.image);
+	}
+
+	@Test
+	public void imageWithoutAlphaIsAnalyzed() {
+		// given
+		BufferedImage img = filledImage(100, 80, BufferedImage.TYPE_INT_RGB);
+
+		// when
+		LoadedImage loaded = new LoadedImage(img, 100, 80);
+
+		// then
+		assertTrue(loaded.opaque);
+		assertSame(loaded, loaded.analyze());
+	}
+
+	@Test
+	public void reducedImageIsNotExamined() {
+		// given
+		BufferedImage img = filledImage(50, 40, BufferedImage.TYPE_INT_ARGB);
+
+		// when
+		LoadedImage analyzed = new LoadedImage(img, 100, 80).analyze();
+
+		// then
+		assertFalse(analyzed.opaque);
+	}
+
+	@Test
+	public void withImageKeepsAnalysis() {
+		// given
+		LoadedImage analyzed = new LoadedImage(filledImage(100, 80, BufferedImage.TYPE_INT_ARGB), 100, 80).analyze();
+
+		// when
+		LoadedImage converted = analyzed.withImage(filledImage(100, 80, BufferedImage.TYPE_4BYTE_ABGR));
+
+		// then
+		assertTrue(converted.opaque);
+		assertTrue(converted.analyzed);
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OpacityAnalyzerTest {
+
+	private static BufferedImage filledImage(int width, int height, int type, Color color) {
+		BufferedImage img = new BufferedImage(width, height, type);
+		Graphics g = img.getGraphics();
+		g.setColor(color);
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+		return img;
+	}
+
+	@Test
+	public void imageWithoutAlphaIsOpaque() {
+		// given
+		BufferedImage img = new BufferedImage(100, 100, BufferedImage.TYPE_3BYTE_BGR);
+
+		// when, then
+		assertTrue(OpacityAnalyzer.isOpaque(img));
+	}
+
+	@Test
+	public void imageWithFullAlphaIsOpaque() {
+		// given
+		BufferedImage img = filledImage(100, 100, BufferedImage.TYPE_INT_ARGB, Color.red);
+
+		// when, then
+		assertTrue(OpacityAnalyzer.isOpaque(img));
+	}
+
+	@Test
+	public void imageWithTransparentPixelIsNotOpaque() {
+		// given
+		BufferedImage img = filledImage(100, 100, BufferedImage.TYPE_4BYTE_ABGR, Color.red);
+		img.setRGB(99, 99, 0x80ff0000);
+
+		// when, then
+		assertFalse(OpacityAnalyzer.isOpaque(img));
+	}
+
+	@Test
+	public void largeImageWithFullAlphaIsOpaque() {
+		// given
+		BufferedImage img = filledImage(2000, 1000, BufferedImage.TYPE_INT_ARGB, Color.red);
+
+		// when, then
+		assertTrue(OpacityAnalyzer.isOpaque(img));
+	}
+
+	@Test
+	public void largeImageWithTransparentPixelIsNotOpaque() {
+		// given
+		BufferedImage img = filledImage(2000, 1000, BufferedImage.TYPE_INT_ARGB, Color.red);
+		img.setRGB(1999, 999, 0x00000000);
+
+		// when, then
+		assertFalse(OpacityAnalyzer.isOpaque(img));
+	}
+
+	@Test
+	public void indexedImageWithTransparentColorIsNotOpaque() {
+		// given
+		byte[] components = new byte[] { 0, (byte) 255 };
+		IndexColorModel colorModel = new IndexColorModel(1, 2, components, components, components, 0);
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_BINARY, colorModel);
+
+		// when, then
+		assertFalse(OpacityAnalyzer.isOpaque(img));
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.util.Cache;
+import net.coobird.gui.simpleimageviewer4j.util.ImageWeigher;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ScaleKeyTest {
+
+	@Test
+	public void sameImageAndScaleGiveSameKey() {
+		// given
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when
+		ScaleKey key = ScaleKey.of(img, 0.25);
+
+		// then
+		assertSame(key, ScaleKey.of(img, 0.25));
+	}
+
+	@Test
+	public void differentScalesGiveDifferentKeys() {
+		// given
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when, then
+		assertNotSame(ScaleKey.of(img, 1.0), ScaleKey.of(img, 0.5));
+		assertNotSame(ScaleKey.of(img, 0.5), ScaleKey.of(img, 0.125));
+	}
+
+	@Test
+	public void differentImagesGiveDifferentKeys() {
+		// given
+		BufferedImage img1 = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		BufferedImage img2 = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when, then
+		assertNotSame(ScaleKey.of(img1, 0.5), ScaleKey.of(img2, 0.5));
+	}
+
+	@Test
+	public void keysForSmallerLevelsAfterLargerOnes() {
+		// given
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		ScaleKey half = ScaleKey.of(img, 0.5);
+
+		// when
+		ScaleKey eighth = ScaleKey.of(img, 0.125);
+
+		// then
+		assertSame(half, ScaleKey.of(img, 0.5));
+		assertSame(eighth, ScaleKey.of(img, 0.125));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void scaleBetweenLevels() {
+		// given
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when
+		ScaleKey.of(img, 0.3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void scaleAboveFull() {
+		// given
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+		// when
+		ScaleKey.of(img, 2.0);
+	}
+
+	@Test
+	public void cachedRenditionDoesNotKeepImageReachable() throws InterruptedException {
+		// given
+		Cache<ScaleKey, BufferedImage> cache =
+				new Cache<ScaleKey, BufferedImage>(Long.MAX_VALUE, ImageWeigher.INSTANCE);
+		ScaleKey.register(cache);
+		BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		BufferedImage rendition = new BufferedImage(5, 5, BufferedImage.TYPE_INT_RGB);
+		cache.put(ScaleKey.of(img, 0.5), rendition);
+		WeakReference<BufferedImage> ref = new WeakReference<BufferedImage>(img);
+
+		// when
+		img = null;
+		for (int i = 0; i < 20 && (ref.get() != null || cache.size() > 0); i++) {
+			System.gc();
+			Thread.sleep(50);
+
+			// Unreachable images are dealt with as keys are obtained.
+			ScaleKey.of(rendition, 1.0);
+		}
+
+		// then
+		assertNull(ref.get());
+		assertEquals(0, cache.size());
+	}
+}
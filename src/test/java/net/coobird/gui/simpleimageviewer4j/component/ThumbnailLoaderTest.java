@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import net.coobird.gui.simpleimageviewer4j.source.FileImageSource;
+import net.coobird.gui.simpleimageviewer4j.source.ListImageSource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ThumbnailLoaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void createThumbnailFitsLongerSide() throws IOException {
+		// given
+		ListImageSource source = new ListImageSource(Arrays.asList(
+				new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB),
+				new BufferedImage(100, 300, BufferedImage.TYPE_INT_RGB)
+		));
+
+		// when
+		BufferedImage wide = ThumbnailLoader.createThumbnail(source, 0, 64);
+		BufferedImage tall = ThumbnailLoader.createThumbnail(source, 1, 64);
+
+		// then
+		assertEquals(64, wide.getWidth());
+		assertEquals(32, wide.getHeight());
+		assertEquals(21, tall.getWidth());
+		assertEquals(64, tall.getHeight());
+	}
+
+	@Test
+	public void createThumbnailDoesNotEnlarge() throws IOException {
+		// given
+		BufferedImage img = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+		ListImageSource source = new ListImageSource(Collections.singletonList(img));
+
+		// when
+		BufferedImage thumbnail = ThumbnailLoader.createThumbnail(source, 0, 64);
+
+		// then
+		assertSame(img, thumbnail);
+	}
+
+	@Test
+	public void createThumbnailFromFile() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		ImageIO.write(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB), "png", file);
+		FileImageSource source = new FileImageSource(Collections.singletonList(file));
+
+		// when
+		BufferedImage thumbnail = ThumbnailLoader.createThumbnail(source, 0, 64);
+
+		// then
+		assertEquals(64, thumbnail.getWidth());
+		assertEquals(32, thumbnail.getHeight());
+	}
+}
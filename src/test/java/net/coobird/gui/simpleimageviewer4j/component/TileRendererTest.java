@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.component;
+
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+public class TileRendererTest {
+
+	@Test
+	public void repaintingOneTileKeepsOtherVisibleTilesPending() throws Exception {
+		// given
+		final int size = 1024;
+		final Rectangle visible = new Rectangle(0, 0, size, size);
+		final BufferedImage overview = new BufferedImage(size / 8, size / 8, BufferedImage.TYPE_INT_RGB);
+		final Graphics g = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB).getGraphics();
+		final TileRenderer.RegionSource regions = new TileRenderer.RegionSource() {
+			@Override
+			public BufferedImage decode(Rectangle region, int subsampling) throws IOException {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					throw new IOException(e.toString());
+				}
+				return new BufferedImage(region.width, region.height, BufferedImage.TYPE_INT_RGB);
+			}
+		};
+
+		// 4 x 4 tiles are visible.
+		final CountDownLatch latch = new CountDownLatch(16);
+		final TileRenderer[] renderer = new TileRenderer[1];
+		renderer[0] = new TileRenderer(new TileRenderer.Callback() {
+			@Override
+			public void tileRendered(Rectangle bounds) {
+				latch.countDown();
+
+				// As the panel does, repaint only the tile which arrived.
+				renderer[0].paint(g, regions, overview, size, size, 0, 0, size, size, bounds, visible, 1);
+			}
+		});
+
+		// when
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				renderer[0].paint(g, regions, overview, size, size, 0, 0, size, size, visible, visible, 1);
+			}
+		});
+
+		// then
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+	}
+}
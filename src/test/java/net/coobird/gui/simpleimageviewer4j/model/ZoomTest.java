@@ -189,4 +189,118 @@ public class ZoomTest {
 		// when, then
 		zoom.setMagnification(3.0);
 	}
+
+	@Test
+	public void zoomToBetweenLevels() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+
+		// when
+		zoom.zoomTo(1.5);
+
+		// then
+		assertEquals(1.5, zoom.getMagnification(), 0.001);
+	}
+
+	@Test
+	public void zoomToIsLimitedByBounds() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1, 0.1, 8.0);
+
+		// when
+		zoom.zoomTo(100.0);
+
+		// then
+		assertEquals(8.0, zoom.getMagnification(), 0.001);
+	}
+
+	@Test
+	public void zoomToWithoutBoundsIsLimitedByLevels() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+
+		// when
+		zoom.zoomTo(0.01);
+
+		// then
+		assertEquals(0.5, zoom.getMagnification(), 0.001);
+	}
+
+	@Test
+	public void zoomToSameMagnificationDoesNotNotify() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+		final int[] notifications = new int[1];
+		zoom.addListener(new ZoomChangeListener() {
+			@Override
+			public void zoomChanged(double magnification) {
+				notifications[0]++;
+			}
+		});
+
+		// when
+		zoom.zoomTo(1.0);
+
+		// then
+		assertEquals(0, notifications[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zoomToNonPositive() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+
+		// when, then
+		zoom.zoomTo(0.0);
+	}
+
+	@Test
+	public void zoomByMultipliesMagnification() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1, 0.1, 8.0);
+
+		// when
+		zoom.zoomBy(3.0);
+
+		// then
+		assertEquals(3.0, zoom.getMagnification(), 0.001);
+	}
+
+	@Test
+	public void zoomInFromBetweenLevels() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+		zoom.zoomTo(0.7);
+
+		// when
+		zoom.zoomIn();
+
+		// then
+		assertEquals(1.0, zoom.getMagnification(), 0.001);
+	}
+
+	@Test
+	public void zoomOutFromBetweenLevels() {
+		// given
+		Zoom zoom = new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1);
+		zoom.zoomTo(1.5);
+
+		// when
+		zoom.zoomOut();
+
+		// then
+		assertEquals(1.0, zoom.getMagnification(), 0.001);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void minimumAboveLevelsInConstructor() {
+		// given, when, then
+		new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1, 0.75, 8.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maximumBelowLevelsInConstructor() {
+		// given, when, then
+		new Zoom(new double[] { 0.5, 1.0, 2.0 }, 1, 0.1, 1.5);
+	}
 }
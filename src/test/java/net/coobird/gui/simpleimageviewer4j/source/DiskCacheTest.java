@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DiskCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static BufferedImage image(int width, int height, int type) {
+		BufferedImage img = new BufferedImage(width, height, type);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				img.setRGB(x, y, 0x80000000 | (x << 16) | (y << 8) | (x ^ y));
+			}
+		}
+		return img;
+	}
+
+	private static File[] entries(File directory) {
+		return directory.listFiles();
+	}
+
+	@Test
+	public void getReturnsStoredOpaqueRendition() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		DiskCache cache = new DiskCache(folder.newFolder("cache"));
+		BufferedImage original = image(30, 20, BufferedImage.TYPE_INT_RGB);
+
+		// when
+		cache.put(file, 2, original);
+		BufferedImage image = cache.get(file, 2);
+
+		// then
+		assertEquals(30, image.getWidth());
+		assertEquals(20, image.getHeight());
+		assertEquals(original.getRGB(7, 5), image.getRGB(7, 5));
+		assertEquals(0xff, image.getRGB(7, 5) >>> 24);
+	}
+
+	@Test
+	public void getReturnsStoredTranslucentRendition() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		DiskCache cache = new DiskCache(folder.newFolder("cache"));
+		BufferedImage original = image(30, 20, BufferedImage.TYPE_INT_ARGB);
+
+		// when
+		cache.put(file, 2, original);
+		BufferedImage image = cache.get(file, 2);
+
+		// then
+		assertEquals(original.getRGB(7, 5), image.getRGB(7, 5));
+		assertEquals(0x80, image.getRGB(7, 5) >>> 24);
+	}
+
+	@Test
+	public void getIsKeyedBySubsampling() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		DiskCache cache = new DiskCache(folder.newFolder("cache"));
+
+		// when
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// then
+		assertNull(cache.get(file, 4));
+	}
+
+	@Test
+	public void getIgnoresModifiedFile() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		DiskCache cache = new DiskCache(folder.newFolder("cache"));
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// when
+		file.setLastModified(file.lastModified() - 10000);
+
+		// then
+		assertNull(cache.get(file, 2));
+	}
+
+	@Test
+	public void getIsSharedBetweenInstances() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		new DiskCache(directory).put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// when
+		BufferedImage image = new DiskCache(directory).get(file, 2);
+
+		// then
+		assertNotNull(image);
+	}
+
+	@Test
+	public void getDiscardsTruncatedRendition() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		DiskCache cache = new DiskCache(directory);
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+		File entry = entries(directory)[0];
+		new FileOutputStream(entry, true).getChannel().truncate(100).close();
+
+		// when
+		BufferedImage image = cache.get(file, 2);
+
+		// then
+		assertNull(image);
+		assertEquals(0, entries(directory).length);
+	}
+
+	@Test
+	public void putSkipsLargeRendition() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		DiskCache cache = new DiskCache(directory);
+
+		// when
+		cache.put(file, 1, new BufferedImage(4096, 2048, BufferedImage.TYPE_INT_RGB));
+
+		// then
+		assertEquals(0, entries(directory).length);
+	}
+
+	@Test
+	public void putEvictsLeastRecentlyUsed() throws IOException {
+		// given
+		File first = folder.newFile("a.png");
+		File second = folder.newFile("b.png");
+		File third = folder.newFile("c.png");
+		File directory = folder.newFolder("cache");
+		// Each rendition takes 16 + 30 * 20 * 3 = 1816 bytes.
+		DiskCache cache = new DiskCache(directory, 4000);
+		cache.put(first, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+		cache.put(second, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+		for (File entry : entries(directory)) {
+			entry.setLastModified(entry.lastModified() - 10000);
+		}
+		cache.get(first, 2);
+
+		// when
+		cache.put(third, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// then
+		assertNotNull(cache.get(first, 2));
+		assertNull(cache.get(second, 2));
+		assertNotNull(cache.get(third, 2));
+	}
+
+	@Test
+	public void clearRemovesRenditions() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		DiskCache cache = new DiskCache(directory);
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// when
+		cache.clear();
+
+		// then
+		assertNull(cache.get(file, 2));
+		assertEquals(0, entries(directory).length);
+	}
+
+	@Test
+	public void constructorDeletesStaleTemporaryFiles() throws IOException {
+		// given
+		File directory = folder.newFolder("cache");
+		File stale = new File(directory, "rendition123.tmp");
+		File fresh = new File(directory, "rendition456.tmp");
+		stale.createNewFile();
+		fresh.createNewFile();
+		stale.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000);
+
+		// when
+		new DiskCache(directory);
+
+		// then
+		assertFalse(stale.exists());
+		assertTrue(fresh.exists());
+	}
+
+	@Test
+	public void putDeletesTemporaryFileWhenRenameFails() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		DiskCache cache = new DiskCache(directory);
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// A non-empty directory in place of the rendition cannot be replaced.
+		File entry = entries(directory)[0];
+		entry.delete();
+		entry.mkdir();
+		new File(entry, "blocker").createNewFile();
+
+		// when
+		cache.put(file, 2, image(30, 20, BufferedImage.TYPE_INT_RGB));
+
+		// then
+		assertEquals(1, entries(directory).length);
+	}
+
+	@Test
+	public void putSkipsUnreadableRendition() throws IOException {
+		// given
+		File file = folder.newFile("a.png");
+		File directory = folder.newFolder("cache");
+		DiskCache cache = new DiskCache(directory);
+		BufferedImage unreadable = new BufferedImage(30, 20, BufferedImage.TYPE_INT_RGB) {
+			@Override
+			public int[] getRGB(int startX, int startY, int w, int h, int[] rgbArray, int offset, int scansize) {
+				throw new IllegalStateException("unreadable");
+			}
+		};
+
+		// when
+		cache.put(file, 2, unreadable);
+
+		// then
+		assertNull(cache.get(file, 2));
+		assertEquals(0, entries(directory).length);
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class FileImageSourceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File writeImage(String name, int width, int height) throws IOException {
+		File file = folder.newFile(name);
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file);
+		return file;
+	}
+
+	@Test
+	public void fromDirectoryListsImagesByName() throws IOException {
+		// given
+		File second = writeImage("b.png", 10, 10);
+		File first = writeImage("a.png", 10, 10);
+		folder.newFile("notes.txt");
+
+		// when
+		FileImageSource source = FileImageSource.fromDirectory(folder.getRoot());
+
+		// then
+		assertEquals(2, source.size());
+		assertEquals(first, source.getFile(0));
+		assertEquals(second, source.getFile(1));
+	}
+
+	@Test(expected = IOException.class)
+	public void fromDirectoryNotADirectory() throws IOException {
+		// given
+		File file = folder.newFile("notes.txt");
+
+		// when, then
+		FileImageSource.fromDirectory(file);
+	}
+
+	@Test
+	public void getDecodesFullImage() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+
+		// when
+		BufferedImage image = source.get(0);
+
+		// then
+		assertEquals(100, image.getWidth());
+		assertEquals(60, image.getHeight());
+	}
+
+	@Test
+	public void getWithSubsamplingDecodesReducedImage() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+
+		// when
+		BufferedImage image = source.get(0, 4);
+
+		// then
+		assertEquals(25, image.getWidth());
+		assertEquals(15, image.getHeight());
+	}
+
+	@Test
+	public void getWithSubsamplingReusesFullImage() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+		BufferedImage full = source.get(0);
+
+		// when
+		BufferedImage image = source.get(0, 4);
+
+		// then
+		assertEquals(full, image);
+	}
+
+	@Test
+	public void getWithSubsamplingUsesDiskCache() throws IOException {
+		// given
+		File file = writeImage("a.png", 100, 60);
+		DiskCache diskCache = new DiskCache(folder.newFolder("cache"));
+		new FileImageSource(Arrays.asList(file), diskCache).get(0, 4);
+		BufferedImage marked = new BufferedImage(25, 15, BufferedImage.TYPE_INT_RGB);
+		marked.setRGB(0, 0, 0xff0000);
+		diskCache.put(file, 4, marked);
+
+		// when
+		BufferedImage image = new FileImageSource(Arrays.asList(file), diskCache).get(0, 4);
+
+		// then
+		assertEquals(0xff0000, image.getRGB(0, 0) & 0xffffff);
+	}
+
+	@Test
+	public void getWithSubsamplingStoresInDiskCache() throws IOException {
+		// given
+		File file = writeImage("a.png", 100, 60);
+		DiskCache diskCache = new DiskCache(folder.newFolder("cache"));
+		FileImageSource source = new FileImageSource(Arrays.asList(file), diskCache);
+
+		// when
+		source.get(0, 4);
+
+		// then
+		assertNotNull(diskCache.get(file, 4));
+		assertNull(diskCache.get(file, 1));
+	}
+
+	@Test
+	public void getDimensionReadsFullSize() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+
+		// when
+		Dimension dimension = source.getDimension(0);
+
+		// then
+		assertEquals(new Dimension(100, 60), dimension);
+	}
+
+	@Test(expected = IOException.class)
+	public void getNotAnImage() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(folder.newFile("a.png")));
+
+		// when, then
+		source.get(0);
+	}
+
+	@Test
+	public void getRegionDecodesOnlyRegion() throws IOException {
+		// given
+		BufferedImage original = new BufferedImage(100, 60, BufferedImage.TYPE_INT_RGB);
+		original.setRGB(40, 20, 0xff0000);
+		File file = folder.newFile("a.png");
+		ImageIO.write(original, "png", file);
+		FileImageSource source = new FileImageSource(Arrays.asList(file));
+
+		// when
+		BufferedImage image = source.getRegion(0, new Rectangle(40, 20, 30, 10), 1);
+
+		// then
+		assertEquals(30, image.getWidth());
+		assertEquals(10, image.getHeight());
+		assertEquals(0xff0000, image.getRGB(0, 0) & 0xffffff);
+	}
+
+	@Test
+	public void getRegionWithSubsamplingDecodesReducedRegion() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+
+		// when
+		BufferedImage image = source.getRegion(0, new Rectangle(0, 0, 40, 20), 4);
+
+		// then
+		assertEquals(10, image.getWidth());
+		assertEquals(5, image.getHeight());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getRegionEmptyRegion() throws IOException {
+		// given
+		FileImageSource source = new FileImageSource(Arrays.asList(writeImage("a.png", 100, 60)));
+
+		// when, then
+		source.getRegion(0, new Rectangle(0, 0, 0, 20), 1);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.source;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LoadingImageSourceTest {
+
+	private static class CountingSource extends LoadingImageSource {
+		private final AtomicInteger loads = new AtomicInteger();
+
+		CountingSource(long budget) {
+			super(budget);
+		}
+
+		@Override
+		public int size() {
+			return 3;
+		}
+
+		@Override
+		protected BufferedImage load(int index) throws IOException {
+			loads.incrementAndGet();
+			if (index == 2) {
+				throw new IOException("Corrupt image.");
+			}
+			return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+		}
+	}
+
+	@Test
+	public void loadedImageIsReused() throws IOException {
+		// given
+		CountingSource source = new CountingSource(1000);
+
+		// when
+		BufferedImage first = source.get(0);
+		BufferedImage second = source.get(0);
+
+		// then
+		assertSame(first, second);
+		assertEquals(1, source.loads.get());
+	}
+
+	@Test
+	public void imagesOverBudgetAreDropped() throws IOException {
+		// given
+		CountingSource source = new CountingSource(400);
+
+		// when
+		source.get(0);
+		source.get(1);
+		source.get(0);
+
+		// then
+		assertEquals(3, source.loads.get());
+	}
+
+	@Test(expected = IOException.class)
+	public void loadFailureIsPropagated() throws IOException {
+		// given
+		CountingSource source = new CountingSource(1000);
+
+		// when, then
+		source.get(2);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void indexOutOfRange() throws IOException {
+		// given
+		CountingSource source = new CountingSource(1000);
+
+		// when, then
+		source.get(3);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getRegionUnsupportedByDefault() throws IOException {
+		// given
+		CountingSource source = new CountingSource(1000);
+
+		// when, then
+		source.getRegion(0, new Rectangle(0, 0, 5, 5), 1);
+	}
+}
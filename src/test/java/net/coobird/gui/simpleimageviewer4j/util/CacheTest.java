@@ -0,0 +1,513 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CacheTest {
+
+	private static Callable<String> countingComputation(final AtomicInteger counter, final String value) {
+		return new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				counter.incrementAndGet();
+				return value;
+			}
+		};
+	}
+
+	@Test
+	public void computeIfAbsentComputesOnMiss() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+		AtomicInteger counter = new AtomicInteger();
+
+		// when
+		String value = cache.computeIfAbsent("key", countingComputation(counter, "value"));
+
+		// then
+		assertEquals("value", value);
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void computeIfAbsentDoesNotComputeOnHit() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+		AtomicInteger counter = new AtomicInteger();
+		cache.computeIfAbsent("key", countingComputation(counter, "value"));
+
+		// when
+		String value = cache.computeIfAbsent("key", countingComputation(counter, "other"));
+
+		// then
+		assertEquals("value", value);
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void getDoesNotCompute() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+
+		// when, then
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void exceptionIsPropagatedAndNotCached() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+		final Exception exception = new Exception("failed");
+
+		// when
+		try {
+			cache.computeIfAbsent("key", new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					throw exception;
+				}
+			});
+			fail();
+
+		} catch (Exception e) {
+			// then
+			assertSame(exception, e);
+		}
+		assertEquals("value", cache.computeIfAbsent("key", countingComputation(new AtomicInteger(), "value")));
+	}
+
+	@Test(timeout = 10000)
+	public void differentKeysAreComputedInParallel() throws Exception {
+		// given
+		final Cache<String, String> cache = new Cache<String, String>();
+		final CountDownLatch bothStarted = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		Callable<String> waitForOther = new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				bothStarted.countDown();
+				bothStarted.await();
+				return "value";
+			}
+		};
+
+		// when
+		Future<String> first = executor.submit(computeTask(cache, "first", waitForOther));
+		Future<String> second = executor.submit(computeTask(cache, "second", waitForOther));
+
+		// then
+		// Would never complete if the computations were serialized.
+		assertEquals("value", first.get());
+		assertEquals("value", second.get());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 30000)
+	public void concurrentRequestsForSameKeyComputeOnce() throws Exception {
+		// given
+		final Cache<String, String> cache = new Cache<String, String>();
+		final AtomicInteger counter = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		Callable<String> slowComputation = new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				counter.incrementAndGet();
+				release.await();
+				return "value";
+			}
+		};
+
+		// when
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		for (int i = 0; i < threads; i++) {
+			results.add(executor.submit(computeTask(cache, "key", slowComputation)));
+		}
+		Thread.sleep(100);
+		release.countDown();
+
+		// then
+		for (Future<String> result : results) {
+			assertEquals("value", result.get());
+		}
+		assertEquals(1, counter.get());
+		executor.shutdown();
+	}
+
+	@Test(timeout = 60000)
+	public void stressNoDuplicateComputationsAndNoLostResults() throws Exception {
+		// given
+		final Cache<Integer, Integer> cache = new Cache<Integer, Integer>();
+		final int keys = 200;
+		final int threads = 16;
+		final int iterations = 5000;
+		final AtomicIntegerArray computations = new AtomicIntegerArray(keys);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		// when
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+		for (int t = 0; t < threads; t++) {
+			final int seed = t;
+			results.add(executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					start.await();
+					int mismatches = 0;
+					for (int i = 0; i < iterations; i++) {
+						final int key = (i * 31 + seed * 17) % keys;
+						Integer value = cache.computeIfAbsent(key, new Callable<Integer>() {
+							@Override
+							public Integer call() throws Exception {
+								computations.incrementAndGet(key);
+								Thread.yield();
+								return key * 2;
+							}
+						});
+						if (value == null || value != key * 2) {
+							mismatches++;
+						}
+					}
+					return mismatches;
+				}
+			}));
+		}
+		start.countDown();
+
+		// then
+		for (Future<Integer> result : results) {
+			assertEquals(0, (int) result.get());
+		}
+		for (int key = 0; key < keys; key++) {
+			assertEquals(1, computations.get(key));
+			assertEquals(key * 2, (int) cache.get(key));
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	private static final Weigher<String> LENGTH_WEIGHER = new Weigher<String>() {
+		@Override
+		public long weigh(String value) {
+			return value.length();
+		}
+	};
+
+	@Test
+	public void boundedCacheStaysWithinBudget() {
+		// given
+		Cache<Integer, String> cache = new Cache<Integer, String>(10, LENGTH_WEIGHER);
+
+		// when
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "abcd");
+		}
+
+		// then
+		assertEquals(8, cache.weight());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void boundedCacheEvictsLeastRecentlyUsed() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("first", "abcd");
+		cache.put("second", "abcd");
+		cache.get("first");
+
+		// when
+		cache.put("third", "abcd");
+
+		// then
+		assertEquals("abcd", cache.get("first"));
+		assertNull(cache.get("second"));
+		assertEquals("abcd", cache.get("third"));
+	}
+
+	@Test
+	public void boundedCacheDoesNotStoreValueHeavierThanBudget() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("first", "abc");
+		cache.put("second", "abc");
+		cache.put("third", "abc");
+
+		// when
+		cache.put("huge", "abcdefghijklmnopqrst");
+
+		// then
+		assertNull(cache.get("huge"));
+		assertEquals("abc", cache.get("first"));
+		assertEquals("abc", cache.get("second"));
+		assertEquals("abc", cache.get("third"));
+		assertEquals(9, cache.weight());
+		assertEquals(1, cache.stats().evictionCount());
+	}
+
+	@Test
+	public void boundedCacheComputesValueHeavierThanBudgetWithoutStoringIt() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("first", "abc");
+		AtomicInteger counter = new AtomicInteger();
+
+		// when
+		String value = cache.computeIfAbsent("huge", countingComputation(counter, "abcdefghijklmnopqrst"));
+
+		// then
+		assertEquals("abcdefghijklmnopqrst", value);
+		assertNull(cache.get("huge"));
+		assertEquals("abc", cache.get("first"));
+	}
+
+	@Test
+	public void boundedCacheReplacingValueWithHeavierThanBudgetRemovesIt() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("key", "abcd");
+
+		// when
+		cache.put("key", "abcdefghijklmnopqrst");
+
+		// then
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.weight());
+	}
+
+	@Test
+	public void boundedCacheReplacingValueUpdatesWeight() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("key", "abcd");
+
+		// when
+		cache.put("key", "ab");
+
+		// then
+		assertEquals(2, cache.weight());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void removeUpdatesWeight() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("first", "abcd");
+		cache.put("second", "ab");
+
+		// when
+		cache.remove("first");
+
+		// then
+		assertNull(cache.get("first"));
+		assertEquals("ab", cache.get("second"));
+		assertEquals(2, cache.weight());
+	}
+
+	@Test
+	public void clearRemovesAllValues() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(10, LENGTH_WEIGHER);
+		cache.put("first", "abcd");
+		cache.put("second", "ab");
+
+		// when
+		cache.clear();
+
+		// then
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+		assertNull(cache.get("first"));
+	}
+
+	@Test
+	public void boundedCacheEvictsValueLargerThanBudget() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>(2, LENGTH_WEIGHER);
+
+		// when
+		String value = cache.computeIfAbsent("key", countingComputation(new AtomicInteger(), "abcd"));
+
+		// then
+		assertEquals("abcd", value);
+		assertEquals(0, cache.weight());
+		assertNull(cache.get("key"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void boundedCacheNegativeBudget() {
+		// given, when, then
+		new Cache<String, String>(-1, LENGTH_WEIGHER);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void boundedCacheNullWeigher() {
+		// given, when, then
+		new Cache<String, String>(10, null);
+	}
+
+	@Test
+	public void getIfPresentDoesNotCountHitsOrMisses() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+		cache.put("key", "value");
+
+		// when
+		String present = cache.getIfPresent("key");
+		String absent = cache.getIfPresent("other");
+
+		// then
+		assertEquals("value", present);
+		assertNull(absent);
+		assertEquals(0, cache.stats().hitCount());
+		assertEquals(0, cache.stats().missCount());
+	}
+
+	@Test
+	public void statsCountHitsMissesAndLoads() throws Exception {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+		AtomicInteger counter = new AtomicInteger();
+
+		// when
+		cache.computeIfAbsent("key", countingComputation(counter, "value"));
+		cache.computeIfAbsent("key", countingComputation(counter, "value"));
+		cache.get("key");
+		cache.get("other");
+
+		// then
+		CacheStats stats = cache.stats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(2, stats.missCount());
+		assertEquals(0.5, stats.hitRate(), 0.001);
+		assertEquals(1, stats.loadSuccessCount());
+		assertEquals(0, stats.loadFailureCount());
+		assertEquals(1, stats.size());
+
+		long loads = 0;
+		for (long count : stats.loadTimeHistogram()) {
+			loads += count;
+		}
+		assertEquals(1, loads);
+	}
+
+	@Test
+	public void statsCountFailedLoads() {
+		// given
+		Cache<String, String> cache = new Cache<String, String>();
+
+		// when
+		try {
+			cache.computeIfAbsent("key", new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					throw new Exception();
+				}
+			});
+			fail();
+
+		} catch (Exception e) {
+			// then
+			assertEquals(1, cache.stats().loadFailureCount());
+		}
+	}
+
+	@Test
+	public void statsCountEvictions() {
+		// given
+		Cache<Integer, String> cache = new Cache<Integer, String>(10, LENGTH_WEIGHER);
+
+		// when
+		for (int i = 0; i < 5; i++) {
+			cache.put(i, "abcd");
+		}
+
+		// then
+		assertEquals(3, cache.stats().evictionCount());
+		assertEquals(8, cache.stats().weight());
+	}
+
+	@Test
+	public void boundedCacheEvictsWhileOtherThreadsRead() throws Exception {
+		// given
+		final Cache<Integer, String> cache = new Cache<Integer, String>(1024, LENGTH_WEIGHER);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+
+		// when
+		for (int t = 0; t < 4; t++) {
+			final int seed = t;
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					for (int i = 0; i < 20000; i++) {
+						int key = (i * 31 + seed * 7) % 1024;
+						cache.computeIfAbsent(key, countingComputation(new AtomicInteger(), "abcd"));
+					}
+					return null;
+				}
+			}));
+		}
+
+		// then
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertEquals(1024, cache.weight());
+	}
+
+	private static <K, V> Callable<V> computeTask(
+			final Cache<K, V> cache,
+			final K key,
+			final Callable<V> computation
+	) {
+		return new Callable<V>() {
+			@Override
+			public V call() throws Exception {
+				return cache.computeIfAbsent(key, computation);
+			}
+		};
+	}
+}
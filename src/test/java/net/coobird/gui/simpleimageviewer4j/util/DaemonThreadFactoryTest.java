@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DaemonThreadFactoryTest {
+
+	private static final Runnable NOTHING = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	@Test
+	public void threadsAreDaemonsAtNormalPriority() {
+		// given
+		DaemonThreadFactory factory = new DaemonThreadFactory("test");
+
+		// when
+		Thread t = factory.newThread(NOTHING);
+
+		// then
+		assertTrue(t.isDaemon());
+		assertEquals(Thread.NORM_PRIORITY, t.getPriority());
+		assertEquals("simpleimageviewer4j-test-1", t.getName());
+	}
+
+	@Test
+	public void threadsHaveGivenPriority() {
+		// given
+		DaemonThreadFactory factory = new DaemonThreadFactory("test", Thread.MIN_PRIORITY);
+
+		// when
+		Thread t = factory.newThread(NOTHING);
+
+		// then
+		assertEquals(Thread.MIN_PRIORITY, t.getPriority());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPriorityIsRejected() {
+		// given, when, then
+		new DaemonThreadFactory("test", Thread.MAX_PRIORITY + 1);
+	}
+}
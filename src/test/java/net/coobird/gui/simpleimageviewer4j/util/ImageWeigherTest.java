@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014-2023 Chris Kroells
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package net.coobird.gui.simpleimageviewer4j.util;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImageWeigherTest {
+
+	@Test
+	public void intArgbImage() {
+		// given
+		BufferedImage img = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+
+		// when, then
+		assertEquals(10 * 20 * 4, ImageWeigher.INSTANCE.weigh(img));
+	}
+
+	@Test
+	public void threeByteBgrImage() {
+		// given
+		BufferedImage img = new BufferedImage(10, 20, BufferedImage.TYPE_3BYTE_BGR);
+
+		// when, then
+		assertEquals(10 * 20 * 3, ImageWeigher.INSTANCE.weigh(img));
+	}
+
+	@Test
+	public void ushortGrayImage() {
+		// given
+		BufferedImage img = new BufferedImage(10, 20, BufferedImage.TYPE_USHORT_GRAY);
+
+		// when, then
+		assertEquals(10 * 20 * 2, ImageWeigher.INSTANCE.weigh(img));
+	}
+
+	@Test
+	public void binaryImage() {
+		// given
+		BufferedImage img = new BufferedImage(16, 20, BufferedImage.TYPE_BYTE_BINARY);
+
+		// when, then
+		assertEquals(2 * 20, ImageWeigher.INSTANCE.weigh(img));
+	}
+}